@@ -0,0 +1,144 @@
+package com.BombTagNet.Backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class LoginWaveBenchmark {
+    private static final int CLIENT_THREADS = 16;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"10000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private String baseUrl;
+    private final List<long[]> measured = new ArrayList<>();
+    private long[] latencies;
+    private boolean measuring;
+    private int wave;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = SpringApplication.run(BackendApplication.class,
+                "--server.port=0",
+                "--game.execution.virtual-threads=" + virtualThreads,
+                "--server.tomcat.max-connections=" + clients * 2,
+                "--server.tomcat.accept-count=" + clients,
+                "--logging.level.root=WARN");
+        baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void startWave(IterationParams params) {
+        measuring = params.getType() == IterationType.MEASUREMENT;
+        latencies = new long[clients * 2];
+        wave++;
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishWave() {
+        if (measuring) {
+            measured.add(latencies);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        report();
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int loginWave() {
+        CompletableFuture<?>[] sessions = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; ++i) {
+            sessions[i] = session(i);
+        }
+        CompletableFuture.allOf(sessions).join();
+        return clients;
+    }
+
+    private CompletableFuture<Void> session(int client) {
+        String playerId = "w" + wave + "_c" + client;
+        HttpRequest enqueue = HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/queue"))
+                .header("X-Player-Id", playerId)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return timed(enqueue, client * 2)
+                .thenCompose(body -> timed(HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/queue/" + ticketId(body)))
+                        .header("X-Player-Id", playerId)
+                        .GET()
+                        .build(), client * 2 + 1))
+                .thenAccept(body -> {
+                });
+    }
+
+    private CompletableFuture<byte[]> timed(HttpRequest request, int slot) {
+        long started = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            latencies[slot] = System.nanoTime() - started;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " for " + request.uri());
+            }
+            return response.body();
+        });
+    }
+
+    private String ticketId(byte[] body) {
+        try {
+            return mapper.readTree(body).get("ticketId").asText();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void report() {
+        long[] sorted = measured.stream().flatMapToLong(LongStream::of).sorted().toArray();
+        if (sorted.length == 0) {
+            return;
+        }
+
+        System.out.printf("%nvirtualThreads=%s clients=%d requests=%d p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n",
+                virtualThreads, clients, sorted.length, percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999), sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(percentile * sorted.length) - 1));
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.BombTagNet.Backend;
+
+import com.BombTagNet.Backend.service.DedicatedServerRegistry;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class WebStackBenchmark {
+    private static final int CLIENT_THREADS = 16;
+    private static final long WATCH_TIMEOUT_SECONDS = 30;
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    @Param({"10000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private String baseUrl;
+    private final List<Long> requestLatencies = new ArrayList<>();
+    private final List<Long> matchLatencies = new ArrayList<>();
+    private ConcurrentLinkedQueue<Long> requests;
+    private ConcurrentLinkedQueue<Long> matches;
+    private boolean measuring;
+    private int peakThreads;
+    private int wave;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        if ("reactive".equals(stack)) {
+            application.setWebApplicationType(WebApplicationType.REACTIVE);
+            application.addInitializers(context -> context.getBeanFactory()
+                    .registerSingleton("nettyReactiveWebServerFactory", new NettyReactiveWebServerFactory(0)));
+        } else {
+            application.setWebApplicationType(WebApplicationType.SERVLET);
+        }
+
+        context = application.run(
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + clients * 2,
+                "--server.tomcat.accept-count=" + clients,
+                "--game.match.long-poll-timeout-seconds=" + WATCH_TIMEOUT_SECONDS,
+                "--logging.level.root=WARN");
+        baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS);
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void startWave(IterationParams params) {
+        measuring = params.getType() == IterationType.MEASUREMENT;
+        requests = new ConcurrentLinkedQueue<>();
+        matches = new ConcurrentLinkedQueue<>();
+        wave++;
+        context.getBean(DedicatedServerRegistry.class).registerOrUpdate("bench-ds-" + wave, "127.0.0.1", "127.0.0.1",
+                7777, DedicatedServerStatus.READY, clients, null);
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishWave() {
+        if (measuring) {
+            requestLatencies.addAll(requests);
+            matchLatencies.addAll(matches);
+            peakThreads = Math.max(peakThreads, threads.getPeakThreadCount());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        report();
+        context.close();
+        clientExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int queueUntilMatched() {
+        CompletableFuture<?>[] sessions = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; ++i) {
+            sessions[i] = session(i);
+        }
+        CompletableFuture.allOf(sessions).join();
+        return clients;
+    }
+
+    private CompletableFuture<Void> session(int client) {
+        String playerId = "s" + wave + "_c" + client;
+        long started = System.nanoTime();
+        HttpRequest enqueue = HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/queue"))
+                .header("X-Player-Id", playerId)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return timed(enqueue)
+                .thenCompose(status -> watchUntilMatched(playerId, status))
+                .thenAccept(status -> matches.add(System.nanoTime() - started));
+    }
+
+    private CompletableFuture<JsonNode> watchUntilMatched(String playerId, JsonNode status) {
+        if ("MATCHED".equals(status.get("status").asText())) {
+            return CompletableFuture.completedFuture(status);
+        }
+
+        HttpRequest watch = HttpRequest.newBuilder(URI.create(baseUrl + "/api/matches/queue/" + status.get("ticketId").asText()
+                        + "/watch?version=" + status.get("version").asLong()))
+                .header("X-Player-Id", playerId)
+                .GET()
+                .build();
+        return timed(watch).thenCompose(next -> watchUntilMatched(playerId, next));
+    }
+
+    private CompletableFuture<JsonNode> timed(HttpRequest request) {
+        long started = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            requests.add(System.nanoTime() - started);
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " for " + request.uri());
+            }
+            return read(response.body());
+        });
+    }
+
+    private JsonNode read(byte[] body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void report() {
+        long[] requestSorted = requestLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long[] matchSorted = matchLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (requestSorted.length == 0 || matchSorted.length == 0) {
+            return;
+        }
+
+        System.out.printf("%nstack=%s clients=%d requests=%d p50=%.2fms p99=%.2fms p999=%.2fms " +
+                        "timeToMatchP50=%.2fms timeToMatchP99=%.2fms peakThreads=%d%n",
+                stack, clients, requestSorted.length, percentileMillis(requestSorted, 0.50),
+                percentileMillis(requestSorted, 0.99), percentileMillis(requestSorted, 0.999),
+                percentileMillis(matchSorted, 0.50), percentileMillis(matchSorted, 0.99), peakThreads);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.min(sorted.length - 1, Math.max(0, Math.ceil(percentile * sorted.length) - 1));
+        return sorted[index] / 1_000_000.0;
+    }
+}
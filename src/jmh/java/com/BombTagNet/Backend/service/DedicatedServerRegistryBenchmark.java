@@ -0,0 +1,92 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.SlotAllocationPolicy;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.ServerSlot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DedicatedServerRegistryBenchmark {
+    private static final int CAPACITY = 4;
+
+    @Param({"1000", "10000"})
+    private int servers;
+
+    @Param({"90", "50"})
+    private int readPercent;
+
+    @Param({"BEST_FIT", "LEAST_LOADED"})
+    private SlotAllocationPolicy policy;
+
+    private DedicatedServerRegistry registry;
+    private String[] dsIds;
+    private final AtomicInteger matchSeq = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        DedicatedServerProperties properties = new DedicatedServerProperties();
+        properties.setLivenessTtlSeconds(0);
+        properties.setAllocationPolicy(policy);
+        registry = new DedicatedServerRegistry(properties, new RegionResolver(new RegionProperties()), meters);
+
+        dsIds = new String[servers];
+        for (int i = 0; i < servers; ++i) {
+            dsIds[i] = "ds_" + i;
+            registry.registerOrUpdate(dsIds[i], "10.0." + (i >> 8) + "." + (i & 255), null, 7777,
+                    DedicatedServerStatus.READY, CAPACITY, null);
+        }
+        for (int i = 0; i < servers * CAPACITY / 2; ++i) {
+            registry.allocateReadyServer("warm_" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.shutdown();
+    }
+
+    private void mixed(Blackhole bh) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < readPercent) {
+            bh.consume(registry.find(dsIds[random.nextInt(servers)]));
+            return;
+        }
+
+        String matchId = "m_" + matchSeq.getAndIncrement();
+        Optional<ServerSlot> slot = registry.allocateReadyServer(matchId);
+        if (slot.isPresent()) {
+            bh.consume(registry.releaseSlot(slot.get().server().dsId(), matchId));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void mixed1Thread(Blackhole bh) {
+        mixed(bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void mixed8Threads(Blackhole bh) {
+        mixed(bh);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void mixed64Threads(Blackhole bh) {
+        mixed(bh);
+    }
+}
@@ -0,0 +1,104 @@
+package com.BombTagNet.Backend.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchFormationBenchmark {
+    private static final int GROUP_SIZE = 3;
+    private static final int PASS_BUDGET = 256;
+    private static final int BUCKET_WIDTH = 10;
+    private static final int WINDOW_BASE = 100;
+    private static final int WINDOW_PER_SECOND = 25;
+    private static final int WINDOW_MAX = 1000;
+
+    @Param({"100000"})
+    private int tickets;
+
+    private final Random random = new Random(42);
+    private RatingIndex<Integer> index;
+    private RatingIndex.Node<Integer>[] queue;
+    private int head;
+    private long now;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Quality {
+        public long groups;
+        public long spreadTotal;
+
+        public double meanSpread() {
+            return groups == 0 ? 0.0 : (double) spreadTotal / groups;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        now = System.currentTimeMillis();
+        index = new RatingIndex<>(BUCKET_WIDTH);
+        queue = new RatingIndex.Node[tickets];
+        for (int i = 0; i < tickets; ++i) {
+            queue[i] = newTicket(i, now - (long) (tickets - i) * 60_000L / tickets);
+            index.add(queue[i]);
+        }
+        head = 0;
+    }
+
+    @Benchmark
+    public void ratingWindowPass(Quality quality) {
+        for (int i = 0; i < PASS_BUDGET; ++i) {
+            RatingIndex.Node<Integer> anchor = queue[(head + i) % tickets];
+            List<RatingIndex.Node<Integer>> group = index.findGroup(anchor, GROUP_SIZE, WINDOW_MAX, now, this::window);
+            if (group != null) {
+                record(quality, group.get(GROUP_SIZE - 1).rating - group.get(0).rating);
+                for (RatingIndex.Node<Integer> member : group) {
+                    replace(member);
+                }
+            }
+        }
+        head = (head + PASS_BUDGET) % tickets;
+    }
+
+    @Benchmark
+    public void fifoPass(Quality quality) {
+        for (int i = 0; i + GROUP_SIZE <= PASS_BUDGET; i += GROUP_SIZE) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int j = 0; j < GROUP_SIZE; ++j) {
+                RatingIndex.Node<Integer> member = queue[(head + i + j) % tickets];
+                min = Math.min(min, member.rating);
+                max = Math.max(max, member.rating);
+                replace(member);
+            }
+            record(quality, max - min);
+        }
+        head = (head + PASS_BUDGET) % tickets;
+    }
+
+    private void record(Quality quality, int spread) {
+        quality.groups++;
+        quality.spreadTotal += spread;
+    }
+
+    private void replace(RatingIndex.Node<Integer> member) {
+        int slot = member.value;
+        index.remove(member);
+        queue[slot] = newTicket(slot, now);
+        index.add(queue[slot]);
+    }
+
+    private RatingIndex.Node<Integer> newTicket(int slot, long enqueuedAtMillis) {
+        int rating = (int) Math.round(1500 + random.nextGaussian() * 350);
+        return new RatingIndex.Node<>(slot, rating, enqueuedAtMillis);
+    }
+
+    private int window(long waitedMillis) {
+        return (int) Math.min(WINDOW_MAX, WINDOW_BASE + WINDOW_PER_SECOND * Math.max(0L, waitedMillis) / 1000L);
+    }
+}
@@ -0,0 +1,63 @@
+package com.BombTagNet.Backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchServiceBenchmark {
+    @Param({"10000", "100000"})
+    private int tickets;
+
+    @Param({"100", "90", "50"})
+    private int readPercent;
+
+    private QueuedTicketFixture fixture;
+    private final AtomicInteger churnSeq = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new QueuedTicketFixture(tickets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    private void mixed(Blackhole bh) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(100) < readPercent) {
+            int i = random.nextInt(tickets);
+            bh.consume(fixture.match.status(fixture.playerIds[i], fixture.ticketIds[i]));
+            return;
+        }
+
+        String playerId = "churn_" + churnSeq.getAndIncrement();
+        MatchService.MatchQueueStatus queued = fixture.enqueueChurn(playerId);
+        bh.consume(fixture.match.cancel(playerId, queued.ticketId()));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void mixed1Thread(Blackhole bh) {
+        mixed(bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void mixed8Threads(Blackhole bh) {
+        mixed(bh);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void mixed64Threads(Blackhole bh) {
+        mixed(bh);
+    }
+}
@@ -0,0 +1,68 @@
+package com.BombTagNet.Backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MatchServiceContentionBenchmark {
+    @Param({"10000"})
+    private int players;
+
+    private QueuedTicketFixture fixture;
+    private final AtomicInteger churnSeq = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new QueuedTicketFixture(players);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    private void poll(Blackhole bh) {
+        int i = ThreadLocalRandom.current().nextInt(players);
+        bh.consume(fixture.match.status(fixture.playerIds[i], fixture.ticketIds[i]));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void statusPoll1Thread(Blackhole bh) {
+        poll(bh);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void statusPoll4Threads(Blackhole bh) {
+        poll(bh);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void statusPollAllCores(Blackhole bh) {
+        poll(bh);
+    }
+
+    @Benchmark
+    @Group("pollUnderChurn")
+    @GroupThreads(7)
+    public void pollers(Blackhole bh) {
+        poll(bh);
+    }
+
+    @Benchmark
+    @Group("pollUnderChurn")
+    @GroupThreads(1)
+    public void churn(Blackhole bh) {
+        String playerId = "churn_" + churnSeq.getAndIncrement();
+        MatchService.MatchQueueStatus queued = fixture.enqueueChurn(playerId);
+        bh.consume(fixture.match.cancel(playerId, queued.ticketId()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MatchServiceEnqueueBenchmark {
+    private static final int OPEN_BACKLOG_MATCHES = 5000;
+    private static final int GROUP_SIZE = 3;
+
+    @Param({"10000", "100000"})
+    private int seeded;
+
+    @Param({"gaussian", "openBacklog"})
+    private String scenario;
+
+    private final Random random = new Random(42);
+    private DedicatedServerRegistry registry;
+    private MatchService match;
+    private int seq;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("benchmark-secret");
+        properties.setTokenTtlSeconds(3600);
+        if (openBacklog()) {
+            properties.setRatingWindowBase(0);
+            properties.setRatingWindowPerSecond(0);
+            properties.setRatingWindowMax(0);
+        }
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        registry = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        match = new MatchService(registry, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters);
+        seq = 0;
+        if (openBacklog()) {
+            for (int i = 0; i < OPEN_BACKLOG_MATCHES * GROUP_SIZE; ++i) {
+                String playerId = "open_" + i;
+                match.enqueue(playerId, playerId, "127.0.0.1", (i / GROUP_SIZE) * 2);
+            }
+        }
+        while (seq < seeded) {
+            enqueue();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        match.shutdown();
+        registry.shutdown();
+    }
+
+    @Benchmark
+    public MatchQueueStatus enqueue() {
+        String playerId = "p_" + seq++;
+        return match.enqueue(playerId, playerId, "127.0.0.1", nextRating());
+    }
+
+    private int nextRating() {
+        if (openBacklog()) {
+            return random.nextInt(OPEN_BACKLOG_MATCHES) * 2 + 1;
+        }
+        return (int) Math.round(1500 + random.nextGaussian() * 350);
+    }
+
+    private boolean openBacklog() {
+        return "openBacklog".equals(scenario);
+    }
+}
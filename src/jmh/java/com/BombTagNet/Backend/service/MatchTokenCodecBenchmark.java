@@ -0,0 +1,74 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.MatchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatchTokenCodecBenchmark {
+    private static final String DS_ID = "ds-eu-west-0042";
+    private static final String ROOM_ID = "Friday Night Bombs";
+    private static final String MATCH_ID = "m_1048576";
+
+    private MatchTokenService tokens;
+    private Instant expiresAt;
+    private String v1Token;
+    private String v2Token;
+    private String v3Token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("YBHft+TFtCj6J2Em9wafFGeTK6AHNzYvcznuyNELIo2u9mRWqawmkuFhwfVIRuME7NYSjQHyCF4nsPXCv92d5A==");
+        properties.setTokenTtlSeconds(3600);
+        tokens = new MatchTokenService(properties, meters);
+        expiresAt = Instant.now().plusSeconds(3600);
+        v1Token = tokens.encodeV1(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+        v2Token = tokens.encodeV2(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+        v3Token = tokens.encodeV3(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+    }
+
+    @Benchmark
+    public String encodeV1() {
+        return tokens.encodeV1(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+    }
+
+    @Benchmark
+    public String encodeV2() {
+        return tokens.encodeV2(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+    }
+
+    @Benchmark
+    public String encodeV3() {
+        return tokens.encodeV3(DS_ID, ROOM_ID, MATCH_ID, expiresAt);
+    }
+
+    @Benchmark
+    public Optional<MatchTokenService.TokenPayload> verifyV1() {
+        return tokens.verify(v1Token);
+    }
+
+    @Benchmark
+    public Optional<MatchTokenService.TokenPayload> verifyV2() {
+        return tokens.verify(v2Token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<MatchTokenService.TokenPayload> verifyV2Contended() {
+        return tokens.verify(v2Token);
+    }
+
+    @Benchmark
+    public Optional<MatchTokenService.TokenPayload> verifyV3() {
+        return tokens.verify(v3Token);
+    }
+}
@@ -0,0 +1,78 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.TokenSigningAlgorithm;
+import com.BombTagNet.Backend.config.MatchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchTokenServiceBenchmark {
+    private static final int ISSUED_TOKENS = 1024;
+
+    @Param({"HMAC_SHA256", "ED25519"})
+    private TokenSigningAlgorithm signing;
+
+    private MatchTokenService tokens;
+    private String[] issued;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("YBHft+TFtCj6J2Em9wafFGeTK6AHNzYvcznuyNELIo2u9mRWqawmkuFhwfVIRuME7NYSjQHyCF4nsPXCv92d5A==");
+        properties.setTokenTtlSeconds(3600);
+        properties.setTokenSigning(signing);
+        tokens = new MatchTokenService(properties, meters);
+
+        issued = new String[ISSUED_TOKENS];
+        for (int i = 0; i < ISSUED_TOKENS; ++i) {
+            issued[i] = tokens.issueToken("ds_" + (i % 64), "room_" + i, "m_" + i).token();
+        }
+    }
+
+    private MatchTokenService.IssuedToken issue() {
+        int i = ThreadLocalRandom.current().nextInt(ISSUED_TOKENS);
+        return tokens.issueToken("ds_" + (i % 64), "room_" + i, "m_" + i);
+    }
+
+    private Optional<MatchTokenService.TokenPayload> verify() {
+        return tokens.verify(issued[ThreadLocalRandom.current().nextInt(ISSUED_TOKENS)]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public MatchTokenService.IssuedToken issue1Thread() {
+        return issue();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public MatchTokenService.IssuedToken issue64Threads() {
+        return issue();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<MatchTokenService.TokenPayload> verify1Thread() {
+        return verify();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<MatchTokenService.TokenPayload> verify8Threads() {
+        return verify();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Optional<MatchTokenService.TokenPayload> verify64Threads() {
+        return verify();
+    }
+}
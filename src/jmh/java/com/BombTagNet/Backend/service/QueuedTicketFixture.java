@@ -0,0 +1,96 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class QueuedTicketFixture {
+    private static final int TICKETS_PER_REGION = RatingIndex.MAX_RATING;
+
+    final DedicatedServerRegistry registry;
+    final MatchService match;
+    final String[] playerIds;
+    final String[] ticketIds;
+    private final int regionCount;
+    private final Path cidrFile;
+    private final AtomicInteger churnSeq = new AtomicInteger();
+
+    QueuedTicketFixture(int tickets) {
+        this.regionCount = Math.max(1, (tickets + TICKETS_PER_REGION - 1) / TICKETS_PER_REGION);
+        this.cidrFile = writeCidrFile(regionCount);
+
+        MeterRegistry meters = new SimpleMeterRegistry();
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("benchmark-secret");
+        properties.setTokenTtlSeconds(3600);
+        properties.setRatingWindowBase(0);
+        properties.setRatingWindowPerSecond(0);
+        properties.setRatingWindowMax(0);
+        RegionProperties regionProperties = new RegionProperties();
+        regionProperties.setCidrFile(cidrFile.toString());
+        RegionResolver regions = new RegionResolver(regionProperties);
+        registry = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        match = new MatchService(registry, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters);
+
+        playerIds = new String[tickets];
+        ticketIds = new String[tickets];
+        for (int i = 0; i < tickets; ++i) {
+            playerIds[i] = "p_" + i;
+            ticketIds[i] = match.enqueue(playerIds[i], playerIds[i], address(i / TICKETS_PER_REGION),
+                    i % TICKETS_PER_REGION).ticketId();
+        }
+        if (match.queuedTickets() != tickets) {
+            throw new IllegalStateException("expected " + tickets + " QUEUED tickets after seeding but found "
+                    + match.queuedTickets());
+        }
+    }
+
+    MatchQueueStatus enqueueChurn(String playerId) {
+        int seq = churnSeq.getAndIncrement() & Integer.MAX_VALUE;
+        int region = seq % regionCount;
+        int rating = (seq / regionCount) % TICKETS_PER_REGION;
+        return match.enqueue(playerId, playerId, address(region), rating);
+    }
+
+    void shutdown() {
+        match.shutdown();
+        registry.shutdown();
+        try {
+            Files.deleteIfExists(cidrFile);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String address(int region) {
+        return "10." + region + ".0.1";
+    }
+
+    private static Path writeCidrFile(int regionCount) {
+        List<String> lines = new ArrayList<>(regionCount);
+        for (int region = 0; region < regionCount; ++region) {
+            lines.add("10." + region + ".0.0/16 bench-" + region);
+        }
+        try {
+            Path file = Files.createTempFile("bench-regions", ".txt");
+            Files.write(file, lines, StandardCharsets.UTF_8);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.BombTagNet.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+final class LoadHttp {
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final LoadRecorder recorder;
+
+    LoadHttp(HttpClient http, String baseUrl, ObjectMapper mapper, LoadRecorder recorder) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+        this.recorder = recorder;
+    }
+
+    CompletableFuture<JsonNode> get(String endpoint, String path, String playerId) {
+        return send(endpoint, request(path, playerId).GET().build());
+    }
+
+    CompletableFuture<JsonNode> post(String endpoint, String path, String playerId, Object body) {
+        HttpRequest.Builder request = request(path, playerId);
+        if (body == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofByteArray(write(body)));
+        }
+        return send(endpoint, request.build());
+    }
+
+    private HttpRequest.Builder request(String path, String playerId) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (playerId != null) {
+            request.header("X-Player-Id", playerId);
+        }
+        return request;
+    }
+
+    private CompletableFuture<JsonNode> send(String endpoint, HttpRequest request) {
+        long started = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).handle((response, ex) -> {
+            recorder.request(endpoint, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                recorder.error(endpoint + " " + cause.getClass().getSimpleName());
+                throw new CompletionException(cause);
+            }
+            if (response.statusCode() != 200) {
+                String code = errorCode(response.body());
+                recorder.error(endpoint + " " + response.statusCode() + (code == null ? "" : " " + code));
+                throw new IllegalStateException(code == null ? "HTTP_" + response.statusCode() : code);
+            }
+            return read(response.body());
+        });
+    }
+
+    private String errorCode(byte[] body) {
+        try {
+            JsonNode node = body == null || body.length == 0 ? null : mapper.readTree(body);
+            return node != null && node.hasNonNull("code") ? node.get("code").asText() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private JsonNode read(byte[] body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.BombTagNet.Backend.loadtest;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LoadRecorder {
+    private final Map<String, LatencyHistogram> endpoints = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LatencyHistogram timeToMatch = new LatencyHistogram();
+    private final LongAdder cancellations = new LongAdder();
+
+    void request(String endpoint, long micros) {
+        endpoints.computeIfAbsent(endpoint, e -> new LatencyHistogram()).record(micros);
+    }
+
+    void error(String code) {
+        errors.computeIfAbsent(code, c -> new LongAdder()).increment();
+    }
+
+    void matched(long micros) {
+        timeToMatch.record(micros);
+    }
+
+    void cancelled() {
+        cancellations.increment();
+    }
+
+    long requests() {
+        long requests = 0L;
+        for (LatencyHistogram histogram : endpoints.values()) {
+            requests += histogram.count();
+        }
+        return requests;
+    }
+
+    long matches() {
+        return timeToMatch.count();
+    }
+
+    void report(PrintStream out, double seconds) {
+        long requests = requests();
+        out.printf("%nduration=%.1fs requests=%d throughput=%.1f req/s matched=%d cancelled=%d%n",
+                seconds, requests, requests / seconds, timeToMatch.count(), cancellations.sum());
+
+        out.printf("%n%-48s %10s %10s %10s %10s %10s %10s%n", "endpoint", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, LatencyHistogram> entry : endpoints.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            out.printf("%-48s %10d %10.1f %10.2f %10.2f %10.2f %10.2f%n", entry.getKey(), histogram.count(),
+                    histogram.count() / seconds, millis(histogram.percentile(0.50)), millis(histogram.percentile(0.99)),
+                    millis(histogram.percentile(0.999)), millis(histogram.max()));
+        }
+
+        out.printf("%ntime-to-match p50=%.0fms p90=%.0fms p99=%.0fms p999=%.0fms max=%.0fms%n",
+                millis(timeToMatch.percentile(0.50)), millis(timeToMatch.percentile(0.90)),
+                millis(timeToMatch.percentile(0.99)), millis(timeToMatch.percentile(0.999)), millis(timeToMatch.max()));
+
+        out.printf("%nerrors%n");
+        if (errors.isEmpty()) {
+            out.printf("  none%n");
+        }
+        errors.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> out.printf("  %-70s %10d%n", e.getKey(), e.getValue().sum()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
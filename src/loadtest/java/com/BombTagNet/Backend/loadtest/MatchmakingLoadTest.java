@@ -0,0 +1,147 @@
+package com.BombTagNet.Backend.loadtest;
+
+import com.BombTagNet.Backend.BackendApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public final class MatchmakingLoadTest {
+    record Options(int clients, int servers, int serverCapacity, long durationMillis, long rampUpMillis,
+                   long pollMillis, double cancelRate, long requeueMillis, long retryMillis, long gameMillis,
+                   long heartbeatMillis, long flipMillis, double busyRate, long busyMillis, long reportMillis,
+                   int httpThreads, int timerThreads) {
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+
+            Options options = new Options(
+                    intValue(values, "clients", 2000),
+                    intValue(values, "servers", 100),
+                    intValue(values, "server-capacity", 8),
+                    seconds(values, "duration-seconds", 60),
+                    seconds(values, "ramp-up-seconds", 10),
+                    longValue(values, "poll-millis", 1000),
+                    doubleValue(values, "cancel-rate", 0.01),
+                    longValue(values, "requeue-millis", 2000),
+                    longValue(values, "retry-millis", 1000),
+                    seconds(values, "game-seconds", 20),
+                    longValue(values, "heartbeat-millis", 5000),
+                    longValue(values, "flip-millis", 10000),
+                    doubleValue(values, "busy-rate", 0.1),
+                    longValue(values, "busy-millis", 3000),
+                    seconds(values, "report-seconds", 10),
+                    intValue(values, "http-threads", Math.max(4, Runtime.getRuntime().availableProcessors())),
+                    intValue(values, "timer-threads", 2));
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options " + values.keySet());
+            }
+            return options;
+        }
+
+        private static int intValue(Map<String, String> values, String name, int defaultValue) {
+            String value = values.remove(name);
+            return value == null ? defaultValue : Integer.parseInt(value);
+        }
+
+        private static long longValue(Map<String, String> values, String name, long defaultValue) {
+            String value = values.remove(name);
+            return value == null ? defaultValue : Long.parseLong(value);
+        }
+
+        private static double doubleValue(Map<String, String> values, String name, double defaultValue) {
+            String value = values.remove(name);
+            return value == null ? defaultValue : Double.parseDouble(value);
+        }
+
+        private static long seconds(Map<String, String> values, String name, long defaultSeconds) {
+            return TimeUnit.SECONDS.toMillis(longValue(values, name, defaultSeconds));
+        }
+    }
+
+    private static final long SHUTDOWN_GRACE_MILLIS = 5000;
+
+    private MatchmakingLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context = SpringApplication.run(BackendApplication.class,
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + Math.max(8192, options.clients() * 2),
+                "--server.tomcat.accept-count=" + Math.max(100, options.clients()),
+                "--server.tomcat.accesslog.enabled=false",
+                "--logging.level.root=WARN");
+        String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(options.httpThreads());
+        ScheduledExecutorService timers = Executors.newScheduledThreadPool(options.timerThreads());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(httpExecutor)
+                .build();
+        LoadRecorder recorder = new LoadRecorder();
+        LoadHttp http = new LoadHttp(client, baseUrl, new ObjectMapper(), recorder);
+
+        Map<String, SimulatedDedicatedServer> servers = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> registrations = new ArrayList<>(options.servers());
+        for (int i = 0; i < options.servers(); ++i) {
+            String dsId = "load-ds-" + i;
+            SimulatedDedicatedServer server = new SimulatedDedicatedServer(dsId, 7000 + i, options, http, recorder, timers);
+            servers.put(dsId, server);
+            registrations.add(server.register());
+        }
+        CompletableFuture.allOf(registrations.toArray(new CompletableFuture<?>[0])).join();
+
+        System.out.printf("Driving %d clients against %d dedicated servers at %s for %ds%n", options.clients(),
+                options.servers(), baseUrl, TimeUnit.MILLISECONDS.toSeconds(options.durationMillis()));
+        List<SimulatedClient> clients = new ArrayList<>(options.clients());
+        for (int i = 0; i < options.clients(); ++i) {
+            SimulatedClient simulated = new SimulatedClient("load-player-" + i, options, http, recorder, timers, servers);
+            clients.add(simulated);
+            simulated.start();
+        }
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(options.durationMillis());
+        long lastRequests = 0L;
+        while (System.nanoTime() < deadline) {
+            long sleep = Math.min(options.reportMillis(), TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            Thread.sleep(Math.max(1L, sleep));
+            long requests = recorder.requests();
+            System.out.printf("t=%ds requests=%d (+%.0f req/s) matched=%d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started), requests,
+                    (requests - lastRequests) * 1000.0 / Math.max(1L, sleep), recorder.matches());
+            lastRequests = requests;
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        clients.forEach(SimulatedClient::stop);
+        servers.values().forEach(SimulatedDedicatedServer::stop);
+        timers.shutdown();
+        timers.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        recorder.report(System.out, seconds);
+
+        httpExecutor.shutdownNow();
+        context.close();
+        System.exit(0);
+    }
+}
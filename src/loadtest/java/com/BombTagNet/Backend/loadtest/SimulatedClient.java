@@ -0,0 +1,108 @@
+package com.BombTagNet.Backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+final class SimulatedClient {
+    private final String playerId;
+    private final MatchmakingLoadTest.Options options;
+    private final LoadHttp http;
+    private final LoadRecorder recorder;
+    private final ScheduledExecutorService timers;
+    private final Map<String, SimulatedDedicatedServer> servers;
+    private volatile boolean running = true;
+    private long enqueuedAt;
+
+    SimulatedClient(String playerId, MatchmakingLoadTest.Options options, LoadHttp http, LoadRecorder recorder,
+                    ScheduledExecutorService timers, Map<String, SimulatedDedicatedServer> servers) {
+        this.playerId = playerId;
+        this.options = options;
+        this.http = http;
+        this.recorder = recorder;
+        this.timers = timers;
+        this.servers = servers;
+    }
+
+    void start() {
+        schedule(this::enqueue, ThreadLocalRandom.current().nextLong(Math.max(1L, options.rampUpMillis())));
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void enqueue() {
+        if (!running) {
+            return;
+        }
+
+        enqueuedAt = System.nanoTime();
+        http.post("POST /api/matches/queue", "/api/matches/queue", playerId, null)
+                .whenComplete((status, ex) -> {
+                    if (ex != null) {
+                        schedule(this::enqueue, options.retryMillis());
+                    } else {
+                        handle(status);
+                    }
+                });
+    }
+
+    private void poll(String ticketId) {
+        if (!running) {
+            return;
+        }
+
+        if (ThreadLocalRandom.current().nextDouble() < options.cancelRate()) {
+            http.post("POST /api/matches/queue/{ticketId}/cancel", "/api/matches/queue/" + ticketId + "/cancel", playerId, null)
+                    .whenComplete((status, ex) -> {
+                        if (ex == null && "CANCELLED".equals(status.path("status").asText())) {
+                            recorder.cancelled();
+                            schedule(this::enqueue, options.requeueMillis());
+                        } else if (ex == null) {
+                            handle(status);
+                        } else {
+                            schedule(this::enqueue, options.retryMillis());
+                        }
+                    });
+            return;
+        }
+
+        http.get("GET /api/matches/queue/{ticketId}", "/api/matches/queue/" + ticketId, playerId)
+                .whenComplete((status, ex) -> {
+                    if (ex != null) {
+                        schedule(this::enqueue, options.retryMillis());
+                    } else {
+                        handle(status);
+                    }
+                });
+    }
+
+    private void handle(JsonNode status) {
+        String state = status.path("status").asText();
+        if ("MATCHED".equals(state)) {
+            recorder.matched(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enqueuedAt));
+            SimulatedDedicatedServer server = servers.get(status.path("dedicatedServerId").asText());
+            if (server != null) {
+                server.matchStarted(status.path("matchId").asText(null), status.path("matchId").asText(null),
+                        status.path("startToken").asText(null));
+            }
+            schedule(this::enqueue, options.gameMillis() + options.requeueMillis());
+        } else if ("CANCELLED".equals(state)) {
+            schedule(this::enqueue, options.requeueMillis());
+        } else {
+            String ticketId = status.path("ticketId").asText();
+            schedule(() -> poll(ticketId), options.pollMillis());
+        }
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        if (running) {
+            long jittered = delayMillis / 2 + ThreadLocalRandom.current().nextLong(Math.max(1L, delayMillis));
+            timers.schedule(task, jittered, TimeUnit.MILLISECONDS);
+        }
+    }
+}
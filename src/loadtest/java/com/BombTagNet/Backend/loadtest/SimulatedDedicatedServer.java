@@ -0,0 +1,108 @@
+package com.BombTagNet.Backend.loadtest;
+
+import com.BombTagNet.Backend.controller.DedicatedServerController.RegisterDedicatedServerReq;
+import com.BombTagNet.Backend.controller.DedicatedServerController.UpdateDedicatedServerStatusReq;
+import com.BombTagNet.Backend.controller.DedicatedServerController.VerifyStartTokenReq;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+final class SimulatedDedicatedServer {
+    private final String dsId;
+    private final int gamePort;
+    private final MatchmakingLoadTest.Options options;
+    private final LoadHttp http;
+    private final LoadRecorder recorder;
+    private final ScheduledExecutorService timers;
+    private final Set<String> matches = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    SimulatedDedicatedServer(String dsId, int gamePort, MatchmakingLoadTest.Options options, LoadHttp http,
+                             LoadRecorder recorder, ScheduledExecutorService timers) {
+        this.dsId = dsId;
+        this.gamePort = gamePort;
+        this.options = options;
+        this.http = http;
+        this.recorder = recorder;
+        this.timers = timers;
+    }
+
+    CompletableFuture<Void> register() {
+        return http.post("POST /api/ds/register", "/api/ds/register", null,
+                        new RegisterDedicatedServerReq(dsId, "127.0.0.1", "127.0.0.1", gamePort, "READY",
+                                options.serverCapacity(), null))
+                .thenRun(() -> {
+                    timers.schedule(this::heartbeat, jitter(options.heartbeatMillis()), TimeUnit.MILLISECONDS);
+                    timers.schedule(this::maybeGoBusy, jitter(options.flipMillis()), TimeUnit.MILLISECONDS);
+                });
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    void matchStarted(String matchId, String roomId, String startToken) {
+        if (!running || matchId == null || !matches.add(matchId)) {
+            return;
+        }
+
+        http.post("POST /api/ds/matches/verify-start", "/api/ds/matches/verify-start", null,
+                        new VerifyStartTokenReq(dsId, roomId, matchId, startToken))
+                .thenAccept(result -> {
+                    if (!result.path("success").asBoolean()) {
+                        recorder.error("verify-start " + result.path("error").asText());
+                    }
+                })
+                .whenComplete((ignored, ex) -> timers.schedule(() -> release(matchId), options.gameMillis(),
+                        TimeUnit.MILLISECONDS));
+    }
+
+    private void release(String matchId) {
+        http.post("POST /api/ds/{dsId}/matches/{matchId}/release", "/api/ds/" + dsId + "/matches/" + matchId + "/release",
+                        null, null)
+                .whenComplete((ignored, ex) -> matches.remove(matchId));
+    }
+
+    private void heartbeat() {
+        if (!running) {
+            return;
+        }
+        http.post("POST /api/ds/{dsId}/heartbeat", "/api/ds/" + dsId + "/heartbeat", null, null)
+                .whenComplete((ignored, ex) -> reschedule(this::heartbeat, options.heartbeatMillis()));
+    }
+
+    private void maybeGoBusy() {
+        if (!running) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= options.busyRate()) {
+            reschedule(this::maybeGoBusy, options.flipMillis());
+            return;
+        }
+
+        updateStatus("BUSY").whenComplete((ignored, ex) -> reschedule(this::goReady, options.busyMillis()));
+    }
+
+    private void goReady() {
+        updateStatus("READY").whenComplete((ignored, ex) -> reschedule(this::maybeGoBusy, options.flipMillis()));
+    }
+
+    private CompletableFuture<?> updateStatus(String status) {
+        return http.post("POST /api/ds/{dsId}/status", "/api/ds/" + dsId + "/status", null,
+                new UpdateDedicatedServerStatusReq(status));
+    }
+
+    private void reschedule(Runnable task, long delayMillis) {
+        if (running) {
+            timers.schedule(task, jitter(delayMillis), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long jitter(long millis) {
+        return millis / 2 + ThreadLocalRandom.current().nextLong(Math.max(1L, millis));
+    }
+}
@@ -1,8 +1,13 @@
 package com.BombTagNet.Backend.common;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 
 public final class PlayerRequestUtils {
+    private static final String PLAYER_ID_HEADER = "X-Player-Id";
+    private static final String PLAYER_NICKNAME_HEADER = "X-Player-Nickname";
+    private static final String PLAYER_RATING_HEADER = "X-Player-Rating";
+
     private PlayerRequestUtils() {
     }
 
@@ -10,21 +15,66 @@ public final class PlayerRequestUtils {
         if (request == null) {
             throw new IllegalStateException("PLAYER_ID_REQUIRED");
         }
-        String id = request.getHeader("X-Player-Id");
-        if (id == null || id.isBlank()) {
+        return requirePlayerId(request.getHeader(PLAYER_ID_HEADER));
+    }
+
+    public static String requirePlayerId(HttpHeaders headers) {
+        if (headers == null) {
             throw new IllegalStateException("PLAYER_ID_REQUIRED");
         }
-        return id.trim();
+        return requirePlayerId(headers.getFirst(PLAYER_ID_HEADER));
     }
 
     public static String resolveNickname(HttpServletRequest request) {
         if (request == null) {
             throw new IllegalStateException("PLAYER_NICKNAME_REQUIRED");
         }
-        String nickname = request.getHeader("X-Player-Nickname");
+        return resolveNickname(request.getHeader(PLAYER_NICKNAME_HEADER), request.getHeader(PLAYER_ID_HEADER));
+    }
+
+    public static String resolveNickname(HttpHeaders headers) {
+        if (headers == null) {
+            throw new IllegalStateException("PLAYER_NICKNAME_REQUIRED");
+        }
+        return resolveNickname(headers.getFirst(PLAYER_NICKNAME_HEADER), headers.getFirst(PLAYER_ID_HEADER));
+    }
+
+    public static Integer resolveRating(HttpServletRequest request) {
+        if (request == null) {
+            return null;
+        }
+        return resolveRating(request.getHeader(PLAYER_RATING_HEADER));
+    }
+
+    public static Integer resolveRating(HttpHeaders headers) {
+        if (headers == null) {
+            return null;
+        }
+        return resolveRating(headers.getFirst(PLAYER_RATING_HEADER));
+    }
+
+    private static String requirePlayerId(String id) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalStateException("PLAYER_ID_REQUIRED");
+        }
+        return id.trim();
+    }
+
+    private static String resolveNickname(String nickname, String id) {
         if (nickname == null || nickname.isBlank()) {
-            return requirePlayerId(request);
+            return requirePlayerId(id);
         }
         return nickname.trim();
     }
+
+    private static Integer resolveRating(String rating) {
+        if (rating == null || rating.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(rating.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("PLAYER_RATING_INVALID");
+        }
+    }
 }
@@ -1,6 +1,10 @@
 package com.BombTagNet.Backend.common;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.net.InetSocketAddress;
+import java.util.function.UnaryOperator;
 
 public final class RequestIpUtils {
     private static final String[] FORWARDED_HEADERS = {
@@ -20,9 +24,22 @@ public final class RequestIpUtils {
         if (request == null) {
             return null;
         }
+        return resolveRemoteAddress(request::getHeader, request.getRemoteAddr());
+    }
+
+    public static String resolveRemoteAddress(HttpHeaders headers, InetSocketAddress remoteAddress) {
+        if (headers == null) {
+            return null;
+        }
+        String remote = remoteAddress == null || remoteAddress.getAddress() == null
+                ? null
+                : remoteAddress.getAddress().getHostAddress();
+        return resolveRemoteAddress(headers::getFirst, remote);
+    }
 
+    private static String resolveRemoteAddress(UnaryOperator<String> headers, String remote) {
         for (String header : FORWARDED_HEADERS) {
-            String value = request.getHeader(header);
+            String value = headers.apply(header);
             if (value == null || value.isBlank()) {
                 continue;
             }
@@ -35,7 +52,6 @@ public final class RequestIpUtils {
             }
         }
 
-        String remote = request.getRemoteAddr();
         if (remote == null || remote.isBlank()) {
             return null;
         }
@@ -0,0 +1,5 @@
+package com.BombTagNet.Backend.common;
+
+public enum RoomEventType {
+    SUBSCRIBED, PLAYER_JOINED, PLAYER_LEFT, HOST_CHANGED, ROOM_STARTED, ROOM_CLOSED, ERROR
+}
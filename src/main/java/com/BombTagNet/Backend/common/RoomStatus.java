@@ -1,5 +1,5 @@
 package com.BombTagNet.Backend.common;
 
 public enum RoomStatus {
-    WAITING, STARTED
+    WAITING, STARTING, STARTED, CLOSED
 }
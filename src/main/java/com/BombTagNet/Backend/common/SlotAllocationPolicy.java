@@ -0,0 +1,5 @@
+package com.BombTagNet.Backend.common;
+
+public enum SlotAllocationPolicy {
+    BEST_FIT, LEAST_LOADED
+}
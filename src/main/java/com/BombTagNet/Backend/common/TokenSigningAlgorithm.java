@@ -0,0 +1,5 @@
+package com.BombTagNet.Backend.common;
+
+public enum TokenSigningAlgorithm {
+    HMAC_SHA256, ED25519
+}
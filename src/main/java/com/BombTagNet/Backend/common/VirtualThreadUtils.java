@@ -0,0 +1,34 @@
+package com.BombTagNet.Backend.common;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+public final class VirtualThreadUtils {
+    private VirtualThreadUtils() {
+    }
+
+    public static boolean isSupported() {
+        return newThreadFactory("probe-") != null;
+    }
+
+    public static ThreadFactory newThreadFactory(String prefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException ex) {
+            return null;
+        }
+    }
+
+    public static Executor newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = newThreadFactory(prefix);
+        if (factory == null) {
+            return null;
+        }
+        return command -> factory.newThread(command).start();
+    }
+}
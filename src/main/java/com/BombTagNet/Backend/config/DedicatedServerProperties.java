@@ -0,0 +1,46 @@
+package com.BombTagNet.Backend.config;
+
+import com.BombTagNet.Backend.common.SlotAllocationPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.ds")
+public class DedicatedServerProperties {
+    private long livenessTtlSeconds = 0;
+    private long evictionTickMillis = 1000;
+    private int evictionWheelSize = 64;
+    private SlotAllocationPolicy allocationPolicy = SlotAllocationPolicy.BEST_FIT;
+
+    public long getLivenessTtlSeconds() {
+        return livenessTtlSeconds;
+    }
+
+    public void setLivenessTtlSeconds(long livenessTtlSeconds) {
+        this.livenessTtlSeconds = livenessTtlSeconds;
+    }
+
+    public long getEvictionTickMillis() {
+        return evictionTickMillis;
+    }
+
+    public void setEvictionTickMillis(long evictionTickMillis) {
+        this.evictionTickMillis = evictionTickMillis;
+    }
+
+    public int getEvictionWheelSize() {
+        return evictionWheelSize;
+    }
+
+    public void setEvictionWheelSize(int evictionWheelSize) {
+        this.evictionWheelSize = evictionWheelSize;
+    }
+
+    public SlotAllocationPolicy getAllocationPolicy() {
+        return allocationPolicy;
+    }
+
+    public void setAllocationPolicy(SlotAllocationPolicy allocationPolicy) {
+        this.allocationPolicy = allocationPolicy;
+    }
+}
@@ -0,0 +1,63 @@
+package com.BombTagNet.Backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.flight-recorder")
+public class FlightRecorderProperties {
+    private boolean enabled = false;
+    private String settings = "default";
+    private long maxAgeMinutes = 30;
+    private long maxSizeMb = 256;
+    private long lockWaitThresholdMillis = 5;
+    private String dumpDirectory = "recordings";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public long getMaxAgeMinutes() {
+        return maxAgeMinutes;
+    }
+
+    public void setMaxAgeMinutes(long maxAgeMinutes) {
+        this.maxAgeMinutes = maxAgeMinutes;
+    }
+
+    public long getMaxSizeMb() {
+        return maxSizeMb;
+    }
+
+    public void setMaxSizeMb(long maxSizeMb) {
+        this.maxSizeMb = maxSizeMb;
+    }
+
+    public long getLockWaitThresholdMillis() {
+        return lockWaitThresholdMillis;
+    }
+
+    public void setLockWaitThresholdMillis(long lockWaitThresholdMillis) {
+        this.lockWaitThresholdMillis = lockWaitThresholdMillis;
+    }
+
+    public String getDumpDirectory() {
+        return dumpDirectory;
+    }
+
+    public void setDumpDirectory(String dumpDirectory) {
+        this.dumpDirectory = dumpDirectory;
+    }
+}
@@ -1,5 +1,6 @@
 package com.BombTagNet.Backend.config;
 
+import com.BombTagNet.Backend.common.TokenSigningAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,19 @@ public class MatchProperties {
     private String tokenSecret;
     @Value("${game.match.token-ttl-seconds}")
     private long tokenTtlSeconds;
+    private int queueShards = Runtime.getRuntime().availableProcessors();
+    private long longPollTimeoutSeconds = 30;
+    private int defaultRating = 1500;
+    private int ratingBucketWidth = 10;
+    private int ratingWindowBase = 100;
+    private int ratingWindowPerSecond = 25;
+    private int ratingWindowMax = 1000;
+    private TokenSigningAlgorithm tokenSigning = TokenSigningAlgorithm.HMAC_SHA256;
+    private long signingKeyRotationSeconds = 86400;
+    private long publicKeyCacheSeconds = 300;
+    private boolean tokenConsumeOnce = false;
+    private long ticketRetentionSeconds = 300;
+    private long rebalanceIntervalMillis = 1000;
 
     public String getTokenSecret() {
         return tokenSecret;
@@ -27,4 +41,108 @@ public class MatchProperties {
     public void setTokenTtlSeconds(long tokenTtlSeconds) {
         this.tokenTtlSeconds = tokenTtlSeconds;
     }
-}
\ No newline at end of file
+
+    public int getQueueShards() {
+        return queueShards;
+    }
+
+    public void setQueueShards(int queueShards) {
+        this.queueShards = queueShards;
+    }
+
+    public long getLongPollTimeoutSeconds() {
+        return longPollTimeoutSeconds;
+    }
+
+    public void setLongPollTimeoutSeconds(long longPollTimeoutSeconds) {
+        this.longPollTimeoutSeconds = longPollTimeoutSeconds;
+    }
+
+    public int getDefaultRating() {
+        return defaultRating;
+    }
+
+    public void setDefaultRating(int defaultRating) {
+        this.defaultRating = defaultRating;
+    }
+
+    public int getRatingBucketWidth() {
+        return ratingBucketWidth;
+    }
+
+    public void setRatingBucketWidth(int ratingBucketWidth) {
+        this.ratingBucketWidth = ratingBucketWidth;
+    }
+
+    public int getRatingWindowBase() {
+        return ratingWindowBase;
+    }
+
+    public void setRatingWindowBase(int ratingWindowBase) {
+        this.ratingWindowBase = ratingWindowBase;
+    }
+
+    public int getRatingWindowPerSecond() {
+        return ratingWindowPerSecond;
+    }
+
+    public void setRatingWindowPerSecond(int ratingWindowPerSecond) {
+        this.ratingWindowPerSecond = ratingWindowPerSecond;
+    }
+
+    public int getRatingWindowMax() {
+        return ratingWindowMax;
+    }
+
+    public void setRatingWindowMax(int ratingWindowMax) {
+        this.ratingWindowMax = ratingWindowMax;
+    }
+
+    public TokenSigningAlgorithm getTokenSigning() {
+        return tokenSigning;
+    }
+
+    public void setTokenSigning(TokenSigningAlgorithm tokenSigning) {
+        this.tokenSigning = tokenSigning;
+    }
+
+    public long getSigningKeyRotationSeconds() {
+        return signingKeyRotationSeconds;
+    }
+
+    public void setSigningKeyRotationSeconds(long signingKeyRotationSeconds) {
+        this.signingKeyRotationSeconds = signingKeyRotationSeconds;
+    }
+
+    public long getPublicKeyCacheSeconds() {
+        return publicKeyCacheSeconds;
+    }
+
+    public void setPublicKeyCacheSeconds(long publicKeyCacheSeconds) {
+        this.publicKeyCacheSeconds = publicKeyCacheSeconds;
+    }
+
+    public boolean isTokenConsumeOnce() {
+        return tokenConsumeOnce;
+    }
+
+    public void setTokenConsumeOnce(boolean tokenConsumeOnce) {
+        this.tokenConsumeOnce = tokenConsumeOnce;
+    }
+
+    public long getTicketRetentionSeconds() {
+        return ticketRetentionSeconds;
+    }
+
+    public void setTicketRetentionSeconds(long ticketRetentionSeconds) {
+        this.ticketRetentionSeconds = ticketRetentionSeconds;
+    }
+
+    public long getRebalanceIntervalMillis() {
+        return rebalanceIntervalMillis;
+    }
+
+    public void setRebalanceIntervalMillis(long rebalanceIntervalMillis) {
+        this.rebalanceIntervalMillis = rebalanceIntervalMillis;
+    }
+}
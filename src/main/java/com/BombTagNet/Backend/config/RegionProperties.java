@@ -0,0 +1,49 @@
+package com.BombTagNet.Backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "game.region")
+public class RegionProperties {
+    private String cidrFile;
+    private String defaultRegion = "default";
+    private Map<String, List<String>> neighbors = new HashMap<>();
+    private long fallbackWaitSeconds = 10;
+
+    public String getCidrFile() {
+        return cidrFile;
+    }
+
+    public void setCidrFile(String cidrFile) {
+        this.cidrFile = cidrFile;
+    }
+
+    public String getDefaultRegion() {
+        return defaultRegion;
+    }
+
+    public void setDefaultRegion(String defaultRegion) {
+        this.defaultRegion = defaultRegion;
+    }
+
+    public Map<String, List<String>> getNeighbors() {
+        return neighbors;
+    }
+
+    public void setNeighbors(Map<String, List<String>> neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    public long getFallbackWaitSeconds() {
+        return fallbackWaitSeconds;
+    }
+
+    public void setFallbackWaitSeconds(long fallbackWaitSeconds) {
+        this.fallbackWaitSeconds = fallbackWaitSeconds;
+    }
+}
@@ -0,0 +1,45 @@
+package com.BombTagNet.Backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.room")
+public class RoomProperties {
+    private long idleTtlSeconds = 1800;
+    private int maxRooms = 100000;
+    private long reaperTickMillis = 1000;
+    private int reaperWheelSize = 64;
+
+    public long getIdleTtlSeconds() {
+        return idleTtlSeconds;
+    }
+
+    public void setIdleTtlSeconds(long idleTtlSeconds) {
+        this.idleTtlSeconds = idleTtlSeconds;
+    }
+
+    public int getMaxRooms() {
+        return maxRooms;
+    }
+
+    public void setMaxRooms(int maxRooms) {
+        this.maxRooms = maxRooms;
+    }
+
+    public long getReaperTickMillis() {
+        return reaperTickMillis;
+    }
+
+    public void setReaperTickMillis(long reaperTickMillis) {
+        this.reaperTickMillis = reaperTickMillis;
+    }
+
+    public int getReaperWheelSize() {
+        return reaperWheelSize;
+    }
+
+    public void setReaperWheelSize(int reaperWheelSize) {
+        this.reaperWheelSize = reaperWheelSize;
+    }
+}
@@ -0,0 +1,33 @@
+package com.BombTagNet.Backend.config;
+
+import com.BombTagNet.Backend.common.VirtualThreadUtils;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "game.execution", name = "virtual-threads", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler() {
+        Executor executor = VirtualThreadUtils.newThreadPerTaskExecutor("http-vt-");
+        if (executor == null) {
+            log.warn("game.execution.virtual-threads is enabled but this JVM has no virtual threads; keeping the Tomcat worker pool");
+            return handler -> {
+            };
+        }
+
+        log.info("Serving HTTP requests on virtual threads");
+        return handler -> handler.setExecutor(executor);
+    }
+}
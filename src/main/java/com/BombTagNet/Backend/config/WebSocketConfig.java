@@ -0,0 +1,24 @@
+package com.BombTagNet.Backend.config;
+
+import com.BombTagNet.Backend.controller.LobbySocketHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final LobbySocketHandler lobby;
+
+    public WebSocketConfig(LobbySocketHandler lobby) {
+        this.lobby = lobby;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(lobby, "/ws/lobby").setAllowedOriginPatterns("*");
+    }
+}
@@ -0,0 +1,28 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.service.FlightRecordingService;
+import com.BombTagNet.Backend.service.FlightRecordingService.RecordingDump;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/admin")
+@ConditionalOnProperty(prefix = "game.flight-recorder", name = "enabled", havingValue = "true")
+public class AdminController {
+    private final FlightRecordingService flightRecording;
+
+    public AdminController(FlightRecordingService flightRecording) {
+        this.flightRecording = flightRecording;
+    }
+
+    @PostMapping("/flight-recording/dump")
+    public ResponseEntity<RecordingDump> dumpFlightRecording(@RequestParam(defaultValue = "5") long minutes) {
+        if (minutes <= 0) {
+            throw new IllegalStateException("INVALID_DUMP_WINDOW");
+        }
+        return ResponseEntity.ok(flightRecording.dump(Duration.ofMinutes(minutes)));
+    }
+}
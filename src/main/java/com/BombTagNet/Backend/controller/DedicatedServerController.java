@@ -1,24 +1,51 @@
 package com.BombTagNet.Backend.controller;
 
+import com.BombTagNet.Backend.service.ConsumedTokenRegistry;
 import com.BombTagNet.Backend.service.DedicatedServerRegistry;
 import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerRecord;
 import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.LivenessStats;
 import com.BombTagNet.Backend.service.MatchTokenService;
+import com.BombTagNet.Backend.service.MatchTokenService.PublicSigningKey;
 import com.BombTagNet.Backend.service.MatchTokenService.TokenPayload;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/ds")
 public class DedicatedServerController {
+    private static final List<String> VERIFY_OUTCOMES = List.of("OK", "TOKEN_MISSING", "TOKEN_INVALID", "TOKEN_EXPIRED",
+            "DEDICATED_SERVER_MISMATCH", "ROOM_MISMATCH", "MATCH_MISMATCH", "DEDICATED_SERVER_NOT_REGISTERED",
+            "TOKEN_ALREADY_USED");
+
     private final DedicatedServerRegistry registry;
     private final MatchTokenService tokens;
+    private final ConsumedTokenRegistry consumedTokens;
+    private final Map<String, Timer> verifyTimers;
 
-    public DedicatedServerController(DedicatedServerRegistry registry, MatchTokenService tokens) {
+    public DedicatedServerController(DedicatedServerRegistry registry, MatchTokenService tokens,
+                                     ConsumedTokenRegistry consumedTokens, MeterRegistry meters) {
         this.registry = registry;
         this.tokens = tokens;
+        this.consumedTokens = consumedTokens;
+
+        Map<String, Timer> timers = new HashMap<>();
+        for (String outcome : VERIFY_OUTCOMES) {
+            timers.put(outcome, Timer.builder("bombtag.ds.verify_start")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meters));
+        }
+        this.verifyTimers = Map.copyOf(timers);
     }
 
     @PostMapping("/register")
@@ -29,7 +56,9 @@ public class DedicatedServerController {
                 req.publicAddress(),
                 req.internalAddress(),
                 req.gamePort(),
-                status
+                status,
+                req.capacity(),
+                req.region()
         );
         return ResponseEntity.ok(toResponse(record));
     }
@@ -42,6 +71,25 @@ public class DedicatedServerController {
         return ResponseEntity.ok(toResponse(record));
     }
 
+    @PostMapping("/{dsId}/matches/{matchId}/release")
+    public ResponseEntity<DedicatedServerRes> releaseSlot(@PathVariable String dsId, @PathVariable String matchId) {
+        DedicatedServerRecord record = registry.releaseSlot(dsId, matchId)
+                .orElseThrow(() -> new IllegalStateException("DEDICATED_SERVER_NOT_FOUND"));
+        return ResponseEntity.ok(toResponse(record));
+    }
+
+    @PostMapping("/{dsId}/heartbeat")
+    public ResponseEntity<DedicatedServerRes> heartbeat(@PathVariable String dsId) {
+        DedicatedServerRecord record = registry.heartbeat(dsId)
+                .orElseThrow(() -> new IllegalStateException("DEDICATED_SERVER_NOT_FOUND"));
+        return ResponseEntity.ok(toResponse(record));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<LivenessStats> stats() {
+        return ResponseEntity.ok(registry.livenessStats());
+    }
+
     @GetMapping("/{dsId}")
     public ResponseEntity<DedicatedServerRes> get(@PathVariable String dsId) {
         DedicatedServerRecord record = registry.find(dsId)
@@ -49,8 +97,23 @@ public class DedicatedServerController {
         return ResponseEntity.ok(toResponse(record));
     }
 
+    @GetMapping("/token-keys")
+    public ResponseEntity<TokenKeysRes> tokenKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(tokens.publicKeyCacheSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(new TokenKeysRes(tokens.publicSigningKeys()));
+    }
+
     @PostMapping("/matches/verify-start")
     public ResponseEntity<VerifyStartTokenRes> verifyStart(@RequestBody VerifyStartTokenReq req) {
+        long started = System.nanoTime();
+        ResponseEntity<VerifyStartTokenRes> response = verify(req);
+        VerifyStartTokenRes body = response.getBody();
+        verifyTimers.get(body.success() ? "OK" : body.error()).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    private ResponseEntity<VerifyStartTokenRes> verify(VerifyStartTokenReq req) {
         if (req.startToken() == null || req.startToken().isBlank()) {
             return ResponseEntity.ok(VerifyStartTokenRes.failure("TOKEN_MISSING"));
         }
@@ -82,6 +145,10 @@ public class DedicatedServerController {
             return ResponseEntity.ok(VerifyStartTokenRes.failure("DEDICATED_SERVER_NOT_REGISTERED"));
         }
 
+        if (!consumedTokens.tryConsume(payload)) {
+            return ResponseEntity.ok(VerifyStartTokenRes.failure("TOKEN_ALREADY_USED"));
+        }
+
         return ResponseEntity.ok(VerifyStartTokenRes.success(payload));
     }
 
@@ -96,7 +163,10 @@ public class DedicatedServerController {
                 record.internalAddress(),
                 record.gamePort(),
                 record.status().name(),
-                record.lastUpdated()
+                record.lastUpdated(),
+                record.capacity(),
+                record.activeMatches(),
+                record.region()
         );
     }
 
@@ -105,7 +175,9 @@ public class DedicatedServerController {
             String publicAddress,
             String internalAddress,
             Integer gamePort,
-            String status
+            String status,
+            Integer capacity,
+            String region
     ) {
     }
 
@@ -118,10 +190,16 @@ public class DedicatedServerController {
             String internalAddress,
             Integer gamePort,
             String status,
-            Instant lastUpdated
+            Instant lastUpdated,
+            Integer capacity,
+            Integer activeMatches,
+            String region
     ) {
     }
 
+    public record TokenKeysRes(List<PublicSigningKey> keys) {
+    }
+
     public record VerifyStartTokenReq(
             String dsId,
             String roomId,
@@ -0,0 +1,101 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.LobbyCommand;
+import com.BombTagNet.Backend.dto.RoomDto.RoomEvent;
+import com.BombTagNet.Backend.service.RoomEventBroadcaster;
+import com.BombTagNet.Backend.service.RoomService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class LobbySocketHandler extends TextWebSocketHandler {
+    private final RoomService rooms;
+    private final RoomEventBroadcaster broadcaster;
+    private final ObjectMapper mapper;
+
+    public LobbySocketHandler(RoomService rooms, RoomEventBroadcaster broadcaster, ObjectMapper mapper) {
+        this.rooms = rooms;
+        this.broadcaster = broadcaster;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String playerId = resolvePlayerId(session);
+        if (playerId == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("PLAYER_ID_REQUIRED"));
+            return;
+        }
+        broadcaster.register(session, playerId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        LobbyCommand command;
+        try {
+            command = mapper.readValue(message.getPayload(), LobbyCommand.class);
+        } catch (Exception ex) {
+            broadcaster.sendTo(session, RoomEvent.error(null, "INVALID_COMMAND"));
+            return;
+        }
+
+        if (command.action() == null) {
+            broadcaster.sendTo(session, RoomEvent.error(command.roomId(), "INVALID_COMMAND"));
+            return;
+        }
+
+        Optional<Room> room = rooms.find(command.roomId());
+        if (room.isEmpty()) {
+            broadcaster.sendTo(session, RoomEvent.error(command.roomId(), "ROOM_NOT_FOUND"));
+            return;
+        }
+
+        Room r = room.get();
+        switch (command.action().toLowerCase()) {
+            case "subscribe" -> subscribe(session, r);
+            case "unsubscribe" -> broadcaster.unsubscribe(r.roomId(), session);
+            default -> broadcaster.sendTo(session, RoomEvent.error(r.roomId(), "INVALID_COMMAND"));
+        }
+    }
+
+    private void subscribe(WebSocketSession session, Room r) {
+        String playerId = broadcaster.playerOf(session);
+        if (playerId == null || !r.contains(playerId)) {
+            broadcaster.sendTo(session, RoomEvent.error(r.roomId(), "NOT_A_MEMBER"));
+            return;
+        }
+
+        broadcaster.subscribe(r.roomId(), session);
+        if (r.status() == RoomStatus.CLOSED || !r.contains(playerId)) {
+            broadcaster.unsubscribe(r.roomId(), session);
+            broadcaster.sendTo(session, RoomEvent.error(r.roomId(), r.status() == RoomStatus.CLOSED ? "ROOM_NOT_FOUND" : "NOT_A_MEMBER"));
+            return;
+        }
+        broadcaster.sendTo(session, RoomEvent.subscribed(r.roomId(), r.hostId(), List.copyOf(r.players())));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        broadcaster.unregister(session);
+    }
+
+    private String resolvePlayerId(WebSocketSession session) {
+        String id = session.getHandshakeHeaders().getFirst("X-Player-Id");
+        if ((id == null || id.isBlank()) && session.getUri() != null) {
+            id = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("playerId");
+        }
+        return id == null || id.isBlank() ? null : id.trim();
+    }
+}
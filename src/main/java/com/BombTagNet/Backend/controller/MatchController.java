@@ -2,80 +2,80 @@ package com.BombTagNet.Backend.controller;
 
 import com.BombTagNet.Backend.common.PlayerRequestUtils;
 import com.BombTagNet.Backend.common.RequestIpUtils;
+import com.BombTagNet.Backend.config.MatchProperties;
 import com.BombTagNet.Backend.dto.MatchDto.MatchQueueStatusRes;
 import com.BombTagNet.Backend.dto.MatchDto.MatchResultReq;
 import com.BombTagNet.Backend.dto.MatchDto.OkRes;
 import com.BombTagNet.Backend.service.MatchService;
 import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
 import jakarta.servlet.http.HttpServletRequest;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/matches")
 public class MatchController {
-    private static final Logger log = LoggerFactory.getLogger(MatchController.class);
     private final MatchService match;
+    private final MatchProperties properties;
 
-    public MatchController(MatchService match) {
+    public MatchController(MatchService match, MatchProperties properties) {
         this.match = match;
-    }
-
-    private MatchQueueStatusRes toResponse(MatchQueueStatus status) {
-        MatchQueueStatusRes response = new MatchQueueStatusRes(
-                status.ticketId(),
-                status.status().name(),
-                status.position(),
-                status.readyInSeconds(),
-                status.waitForFourthSeconds(),
-                status.minPlayers(),
-                status.maxPlayers(),
-                status.matchId(),
-                status.players(),
-                status.dedicatedServerId(),
-                status.dedicatedServerAddress(),
-                status.dedicatedServerPort(),
-                status.startToken(),
-                status.startTokenExpiresAt() == null ? null : status.startTokenExpiresAt().toString()
-        );
-
-        if (response.startToken() != null && !response.startToken().isBlank()) {
-            log.info("Issuing MatchQueueStatus ticketId={} status={} matchId={} dedicatedServerAddress={} " +
-                            "dedicatedServerPort={} dedicatedServerId={} startToken={} startTokenExpiresAt={}",
-                    response.ticketId(),
-                    response.status(),
-                    response.matchId(),
-                    response.dedicatedServerAddress(),
-                    response.dedicatedServerPort(),
-                    response.dedicatedServerId(),
-                    response.startToken(),
-                    response.startTokenExpiresAt());
-        }
-
-        return response;
+        this.properties = properties;
     }
 
     @PostMapping("/queue")
     public ResponseEntity<MatchQueueStatusRes> enqueue(HttpServletRequest request) {
         String playerId = PlayerRequestUtils.requirePlayerId(request);
-        MatchQueueStatus status = match.enqueue(playerId, PlayerRequestUtils.resolveNickname(request), RequestIpUtils.resolveRemoteAddress(request));
-        return ResponseEntity.ok(toResponse(status));
+        MatchQueueStatus status = match.enqueue(playerId, PlayerRequestUtils.resolveNickname(request),
+                RequestIpUtils.resolveRemoteAddress(request), PlayerRequestUtils.resolveRating(request));
+        return ResponseEntity.ok(MatchResponses.toResponse(status));
     }
 
     @GetMapping("/queue/{ticketId}")
     public ResponseEntity<MatchQueueStatusRes> status(HttpServletRequest request, @PathVariable String ticketId) {
         return match.status(PlayerRequestUtils.requirePlayerId(request), ticketId)
-                .map(this::toResponse)
+                .map(MatchResponses::toResponse)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND"));
     }
 
+    @GetMapping("/queue/{ticketId}/watch")
+    public DeferredResult<ResponseEntity<MatchQueueStatusRes>> watch(HttpServletRequest request, @PathVariable String ticketId,
+                                                                     @RequestParam(required = false) Long version,
+                                                                     @RequestParam(required = false) Long timeoutSeconds) {
+        String playerId = PlayerRequestUtils.requirePlayerId(request);
+        long maxTimeout = Math.max(1L, properties.getLongPollTimeoutSeconds());
+        long timeout = timeoutSeconds == null ? maxTimeout : Math.max(1L, Math.min(timeoutSeconds, maxTimeout));
+
+        CompletableFuture<MatchQueueStatus> change = version == null
+                ? match.status(playerId, ticketId).map(CompletableFuture::completedFuture).orElse(null)
+                : match.awaitChange(playerId, ticketId, version).orElse(null);
+        if (change == null) {
+            throw new IllegalStateException("TICKET_NOT_FOUND");
+        }
+
+        DeferredResult<ResponseEntity<MatchQueueStatusRes>> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeout));
+        result.onTimeout(() -> {
+            change.cancel(false);
+            match.status(playerId, ticketId).ifPresentOrElse(
+                    status -> result.setResult(ResponseEntity.ok(MatchResponses.toResponse(status))),
+                    () -> result.setErrorResult(new IllegalStateException("TICKET_NOT_FOUND")));
+        });
+        result.onCompletion(() -> change.cancel(false));
+        change.thenAccept(status -> result.setResult(ResponseEntity.ok(MatchResponses.toResponse(status))));
+        return result;
+    }
+
     @PostMapping("/queue/{ticketId}/cancel")
     public ResponseEntity<MatchQueueStatusRes> cancel(HttpServletRequest request, @PathVariable String ticketId) {
         return match.cancel(PlayerRequestUtils.requirePlayerId(request), ticketId)
-                .map(this::toResponse)
+                .map(MatchResponses::toResponse)
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND"));
     }
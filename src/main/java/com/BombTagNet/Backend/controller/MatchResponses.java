@@ -0,0 +1,48 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.dto.MatchDto.MatchQueueStatusRes;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+final class MatchResponses {
+    private static final Logger log = LoggerFactory.getLogger(MatchResponses.class);
+
+    private MatchResponses() {
+    }
+
+    static MatchQueueStatusRes toResponse(MatchQueueStatus status) {
+        MatchQueueStatusRes response = new MatchQueueStatusRes(
+                status.ticketId(),
+                status.status().name(),
+                status.position(),
+                status.readyInSeconds(),
+                status.waitForFourthSeconds(),
+                status.minPlayers(),
+                status.maxPlayers(),
+                status.matchId(),
+                status.players(),
+                status.dedicatedServerId(),
+                status.dedicatedServerAddress(),
+                status.dedicatedServerPort(),
+                status.startToken(),
+                status.startTokenExpiresAt() == null ? null : status.startTokenExpiresAt().toString(),
+                status.version()
+        );
+
+        if (response.startToken() != null && !response.startToken().isBlank()) {
+            log.info("Issuing MatchQueueStatus ticketId={} status={} matchId={} dedicatedServerAddress={} " +
+                            "dedicatedServerPort={} dedicatedServerId={} startToken={} startTokenExpiresAt={}",
+                    response.ticketId(),
+                    response.status(),
+                    response.matchId(),
+                    response.dedicatedServerAddress(),
+                    response.dedicatedServerPort(),
+                    response.dedicatedServerId(),
+                    response.startToken(),
+                    response.startTokenExpiresAt());
+        }
+
+        return response;
+    }
+}
@@ -0,0 +1,99 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.common.PlayerRequestUtils;
+import com.BombTagNet.Backend.common.RequestIpUtils;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.dto.MatchDto.MatchQueueStatusRes;
+import com.BombTagNet.Backend.dto.MatchDto.MatchResultReq;
+import com.BombTagNet.Backend.dto.MatchDto.OkRes;
+import com.BombTagNet.Backend.service.MatchService;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/matches")
+public class ReactiveMatchController {
+    private final MatchService match;
+    private final MatchProperties properties;
+
+    public ReactiveMatchController(MatchService match, MatchProperties properties) {
+        this.match = match;
+        this.properties = properties;
+    }
+
+    @PostMapping("/queue")
+    public Mono<ResponseEntity<MatchQueueStatusRes>> enqueue(ServerHttpRequest request) {
+        return Mono.fromSupplier(() -> {
+            HttpHeaders headers = request.getHeaders();
+            String playerId = PlayerRequestUtils.requirePlayerId(headers);
+            MatchQueueStatus status = match.enqueue(playerId, PlayerRequestUtils.resolveNickname(headers),
+                    RequestIpUtils.resolveRemoteAddress(headers, request.getRemoteAddress()),
+                    PlayerRequestUtils.resolveRating(headers));
+            return ResponseEntity.ok(MatchResponses.toResponse(status));
+        });
+    }
+
+    @GetMapping("/queue/{ticketId}")
+    public Mono<ResponseEntity<MatchQueueStatusRes>> status(@RequestHeader HttpHeaders headers, @PathVariable String ticketId) {
+        return Mono.fromSupplier(() -> match.status(PlayerRequestUtils.requirePlayerId(headers), ticketId)
+                .map(MatchResponses::toResponse)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND")));
+    }
+
+    @GetMapping("/queue/{ticketId}/watch")
+    public Mono<ResponseEntity<MatchQueueStatusRes>> watch(@RequestHeader HttpHeaders headers, @PathVariable String ticketId,
+                                                           @RequestParam(required = false) Long version,
+                                                           @RequestParam(required = false) Long timeoutSeconds) {
+        return Mono.defer(() -> {
+            String playerId = PlayerRequestUtils.requirePlayerId(headers);
+            long maxTimeout = Math.max(1L, properties.getLongPollTimeoutSeconds());
+            long timeout = timeoutSeconds == null ? maxTimeout : Math.max(1L, Math.min(timeoutSeconds, maxTimeout));
+
+            CompletableFuture<MatchQueueStatus> change = version == null
+                    ? match.status(playerId, ticketId).map(CompletableFuture::completedFuture).orElse(null)
+                    : match.awaitChange(playerId, ticketId, version).orElse(null);
+            if (change == null) {
+                return Mono.error(new IllegalStateException("TICKET_NOT_FOUND"));
+            }
+
+            return Mono.fromFuture(change)
+                    .timeout(Duration.ofSeconds(timeout), Mono.fromSupplier(() -> match.status(playerId, ticketId)
+                            .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND"))))
+                    .map(status -> ResponseEntity.ok(MatchResponses.toResponse(status)));
+        });
+    }
+
+    @GetMapping(value = "/queue/{ticketId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<MatchQueueStatusRes> stream(@RequestHeader HttpHeaders headers, @PathVariable String ticketId) {
+        return Flux.defer(() -> match.watch(PlayerRequestUtils.requirePlayerId(headers), ticketId)
+                        .map(JdkFlowAdapter::flowPublisherToFlux)
+                        .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND")))
+                .map(MatchResponses::toResponse);
+    }
+
+    @PostMapping("/queue/{ticketId}/cancel")
+    public Mono<ResponseEntity<MatchQueueStatusRes>> cancel(@RequestHeader HttpHeaders headers, @PathVariable String ticketId) {
+        return Mono.fromSupplier(() -> match.cancel(PlayerRequestUtils.requirePlayerId(headers), ticketId)
+                .map(MatchResponses::toResponse)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new IllegalStateException("TICKET_NOT_FOUND")));
+    }
+
+    @PostMapping("/{matchId}/result")
+    public Mono<ResponseEntity<OkRes>> result(@PathVariable String matchId, @RequestBody MatchResultReq req) {
+        return Mono.just(ResponseEntity.ok(new OkRes(true)));
+    }
+}
@@ -0,0 +1,107 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.common.PlayerRequestUtils;
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.*;
+import com.BombTagNet.Backend.service.RoomBrowser;
+import com.BombTagNet.Backend.service.RoomBrowser.RoomFilter;
+import com.BombTagNet.Backend.service.RoomService;
+import com.BombTagNet.Backend.service.RoomService.PendingStart;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/rooms")
+public class ReactiveRoomController {
+    private final RoomService rooms;
+    private final RoomBrowser browser;
+    private final MatchProperties properties;
+
+    public ReactiveRoomController(RoomService rooms, RoomBrowser browser, MatchProperties properties) {
+        this.rooms = rooms;
+        this.browser = browser;
+        this.properties = properties;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> list(@RequestHeader HttpHeaders headers,
+                                             @RequestParam(required = false) RoomStatus status,
+                                             @RequestParam(defaultValue = "false") boolean freeSlots,
+                                             @RequestParam(defaultValue = "false") boolean noPassword,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        return Mono.fromSupplier(() -> {
+            PlayerRequestUtils.requirePlayerId(headers);
+            byte[] page = browser.page(new RoomFilter(status, freeSlots, noPassword), cursor,
+                    limit == null ? RoomBrowser.DEFAULT_PAGE_SIZE : limit);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
+        });
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<RoomSummary>> create(@RequestHeader HttpHeaders headers, @RequestBody CreateRoomReq req) {
+        return Mono.fromSupplier(() -> {
+            String playerId = PlayerRequestUtils.requirePlayerId(headers);
+            Player host = new Player(playerId, PlayerRequestUtils.resolveNickname(headers));
+            Room room = rooms.create(host, req.name(), RoomResponses.requireMaxPlayers(req.maxPlayers()), req.password());
+            return ResponseEntity.ok(RoomResponses.toSummary(room));
+        });
+    }
+
+    @PostMapping("/{roomId}/join")
+    public Mono<ResponseEntity<JoinRoomRes>> join(@RequestHeader HttpHeaders headers, @PathVariable String roomId,
+                                                  @RequestBody(required = false) JoinRoomReq req) {
+        return Mono.fromSupplier(() -> {
+            Room room = requireRoom(roomId);
+            String playerId = PlayerRequestUtils.requirePlayerId(headers);
+            String nick = PlayerRequestUtils.resolveNickname(headers);
+            int slot = rooms.join(room, new Player(playerId, nick), req == null ? null : req.password());
+            return ResponseEntity.ok(new JoinRoomRes(room.roomId(), slot, RoomResponses.snapshotPlayers(room)));
+        });
+    }
+
+    @PostMapping("/{roomId}/leave")
+    public Mono<ResponseEntity<Void>> leave(@RequestHeader HttpHeaders headers, @PathVariable String roomId) {
+        return Mono.fromSupplier(() -> {
+            Room room = requireRoom(roomId);
+            rooms.leave(room, PlayerRequestUtils.requirePlayerId(headers));
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @GetMapping("/{roomId}")
+    public Mono<ResponseEntity<RoomDetail>> get(@RequestHeader HttpHeaders headers, @PathVariable String roomId) {
+        return Mono.fromSupplier(() -> {
+            PlayerRequestUtils.requirePlayerId(headers);
+            return ResponseEntity.ok(RoomResponses.toDetail(requireRoom(roomId)));
+        });
+    }
+
+    @PostMapping("/{roomId}/start")
+    public Mono<ResponseEntity<StartRoomRes>> start(@RequestHeader HttpHeaders headers, @PathVariable String roomId) {
+        return Mono.defer(() -> {
+            Room room = requireRoom(roomId);
+            PendingStart pending = rooms.start(room, PlayerRequestUtils.requirePlayerId(headers), RoomResponses.MIN_PLAYERS);
+
+            Duration timeout = Duration.ofSeconds(Math.max(1L, properties.getLongPollTimeoutSeconds()));
+            return Mono.fromFuture(pending.launch().thenApply(launch -> ResponseEntity.ok(RoomResponses.toStartResponse(room, launch))))
+                    .timeout(timeout, Mono.fromSupplier(() -> ResponseEntity.accepted()
+                            .body(new StartRoomRes(pending.matchId(), null, null, null, null))))
+                    .onErrorMap(ex -> !(ex instanceof IllegalStateException), ex -> new IllegalStateException("ROOM_NOT_FOUND"));
+        });
+    }
+
+    private Room requireRoom(String roomId) {
+        return rooms.find(roomId).orElseThrow(() -> new IllegalStateException("ROOM_NOT_FOUND"));
+    }
+}
@@ -2,38 +2,58 @@ package com.BombTagNet.Backend.controller;
 
 import com.BombTagNet.Backend.common.PlayerRequestUtils;
 import com.BombTagNet.Backend.common.RequestIpUtils;
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.config.MatchProperties;
 import com.BombTagNet.Backend.dao.Player;
 import com.BombTagNet.Backend.dao.Room;
 import com.BombTagNet.Backend.dto.RoomDto.*;
+import com.BombTagNet.Backend.service.RoomBrowser;
+import com.BombTagNet.Backend.service.RoomBrowser.RoomFilter;
 import com.BombTagNet.Backend.service.RoomService;
-import com.BombTagNet.Backend.service.RoomService.MatchLaunch;
+import com.BombTagNet.Backend.service.RoomService.PendingStart;
 import jakarta.servlet.http.HttpServletRequest;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/rooms")
 public class RoomController {
-    private static final Logger log = LoggerFactory.getLogger(RoomController.class);
-    private static final int MIN_PLAYERS = 2;
-
     private final RoomService rooms;
+    private final RoomBrowser browser;
+    private final MatchProperties properties;
 
-    public RoomController(RoomService rooms) {
+    public RoomController(RoomService rooms, RoomBrowser browser, MatchProperties properties) {
         this.rooms = rooms;
+        this.browser = browser;
+        this.properties = properties;
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> list(HttpServletRequest request,
+                                       @RequestParam(required = false) RoomStatus status,
+                                       @RequestParam(defaultValue = "false") boolean freeSlots,
+                                       @RequestParam(defaultValue = "false") boolean noPassword,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit) {
+        PlayerRequestUtils.requirePlayerId(request);
+        byte[] page = browser.page(new RoomFilter(status, freeSlots, noPassword), cursor,
+                limit == null ? RoomBrowser.DEFAULT_PAGE_SIZE : limit);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(page);
     }
 
     @PostMapping
     public ResponseEntity<RoomSummary> create(HttpServletRequest request, @RequestBody CreateRoomReq req) {
         String playerId = PlayerRequestUtils.requirePlayerId(request);
-        Room room = rooms.create(playerId, req.name(), req.maxPlayers() == null ? 4 : req.maxPlayers(), req.password());
         Player host = new Player(playerId, PlayerRequestUtils.resolveNickname(request));
-        room.add(host);
-        return ResponseEntity.ok(toSummary(room));
+        Room room = rooms.create(host, req.name(), RoomResponses.requireMaxPlayers(req.maxPlayers()), req.password());
+        return ResponseEntity.ok(RoomResponses.toSummary(room));
     }
 
     @PostMapping("/{roomId}/join")
@@ -41,9 +61,8 @@ public class RoomController {
         Room room = requireRoom(roomId);
         String playerId = PlayerRequestUtils.requirePlayerId(request);
         String nick = PlayerRequestUtils.resolveNickname(request);
-        rooms.join(room, new Player(playerId, nick), req == null ? null : req.password());
-        int slot = room.size();
-        return ResponseEntity.ok(new JoinRoomRes(room.roomId(), slot, snapshotPlayers(room)));
+        int slot = rooms.join(room, new Player(playerId, nick), req == null ? null : req.password());
+        return ResponseEntity.ok(new JoinRoomRes(room.roomId(), slot, RoomResponses.snapshotPlayers(room)));
     }
 
     @PostMapping("/{roomId}/leave")
@@ -57,54 +76,30 @@ public class RoomController {
     @GetMapping("/{roomId}")
     public ResponseEntity<RoomDetail> get(HttpServletRequest request, @PathVariable String roomId) {
         PlayerRequestUtils.requirePlayerId(request);
-        return ResponseEntity.ok(toDetail(requireRoom(roomId)));
+        return ResponseEntity.ok(RoomResponses.toDetail(requireRoom(roomId)));
     }
 
     @PostMapping("/{roomId}/start")
-    public ResponseEntity<StartRoomRes> start(HttpServletRequest request, @PathVariable String roomId) {
+    public DeferredResult<ResponseEntity<StartRoomRes>> start(HttpServletRequest request, @PathVariable String roomId) {
         Room room = requireRoom(roomId);
-        MatchLaunch launch = rooms.start(room, PlayerRequestUtils.requirePlayerId(request), MIN_PLAYERS);
-        StartRoomRes response = new StartRoomRes(
-                launch.matchId(),
-                launch.server().publicAddress(),
-                launch.server().gamePort() <= 0 ? null : launch.server().gamePort(),
-                launch.startToken(),
-                launch.expiresAt() == null ? null : launch.expiresAt().toString()
-        );
-
-        log.info("Issuing StartRoomRes roomId={} matchId={} dedicatedServerAddress={} dedicatedServerPort={} startToken={} " +
-                        "startTokenExpiresAt={}",
-                room.roomId(),
-                response.matchId(),
-                response.dedicatedServerAddress(),
-                response.dedicatedServerPort(),
-                response.startToken(),
-                response.startTokenExpiresAt());
-
-        return ResponseEntity.ok(response);
+        PendingStart pending = rooms.start(room, PlayerRequestUtils.requirePlayerId(request), RoomResponses.MIN_PLAYERS);
+
+        long timeout = TimeUnit.SECONDS.toMillis(Math.max(1L, properties.getLongPollTimeoutSeconds()));
+        DeferredResult<ResponseEntity<StartRoomRes>> result = new DeferredResult<>(timeout);
+        result.onTimeout(() -> result.setResult(ResponseEntity.accepted()
+                .body(new StartRoomRes(pending.matchId(), null, null, null, null))));
+        pending.launch().whenComplete((launch, ex) -> {
+            if (ex == null) {
+                result.setResult(ResponseEntity.ok(RoomResponses.toStartResponse(room, launch)));
+            } else {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                result.setErrorResult(cause instanceof IllegalStateException ? cause : new IllegalStateException("ROOM_NOT_FOUND"));
+            }
+        });
+        return result;
     }
 
     private Room requireRoom(String roomId) {
         return rooms.find(roomId).orElseThrow(() -> new IllegalStateException("ROOM_NOT_FOUND"));
     }
-
-    private List<Player> snapshotPlayers(Room room) {
-        return List.copyOf(room.players());
-    }
-
-    private RoomSummary toSummary(Room room) {
-        List<Player> players = snapshotPlayers(room);
-        return new RoomSummary(room.roomId(), room.name(), room.hostId(), room.status(), MIN_PLAYERS, room.maxPlayers(),
-                room.size(), players, room.dedicatedServerId(), room.dedicatedServerAddress(), room.dedicatedServerPort(),
-                room.dedicatedServerInternalAddress(), room.startToken(),
-                room.startTokenExpiresAt() == null ? null : room.startTokenExpiresAt().toString());
-    }
-
-    private RoomDetail toDetail(Room room) {
-        List<Player> players = snapshotPlayers(room);
-        return new RoomDetail(room.roomId(), room.name(), room.status(), MIN_PLAYERS, room.maxPlayers(), room.size(),
-                players, room.hostId(), room.dedicatedServerId(), room.dedicatedServerAddress(), room.dedicatedServerPort(),
-                room.dedicatedServerInternalAddress(), room.startToken(),
-                room.startTokenExpiresAt() == null ? null : room.startTokenExpiresAt().toString());
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.RoomDetail;
+import com.BombTagNet.Backend.dto.RoomDto.RoomSummary;
+import com.BombTagNet.Backend.dto.RoomDto.StartRoomRes;
+import com.BombTagNet.Backend.service.RoomService.MatchLaunch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+final class RoomResponses {
+    private static final Logger log = LoggerFactory.getLogger(RoomResponses.class);
+    static final int MIN_PLAYERS = 2;
+
+    private RoomResponses() {
+    }
+
+    static StartRoomRes toStartResponse(Room room, MatchLaunch launch) {
+        StartRoomRes response = new StartRoomRes(
+                launch.matchId(),
+                launch.server().publicAddress(),
+                launch.server().gamePort() <= 0 ? null : launch.server().gamePort(),
+                launch.startToken(),
+                launch.expiresAt() == null ? null : launch.expiresAt().toString()
+        );
+
+        log.info("Issuing StartRoomRes roomId={} matchId={} dedicatedServerAddress={} dedicatedServerPort={} startToken={} " +
+                        "startTokenExpiresAt={}",
+                room.roomId(),
+                response.matchId(),
+                response.dedicatedServerAddress(),
+                response.dedicatedServerPort(),
+                response.startToken(),
+                response.startTokenExpiresAt());
+
+        return response;
+    }
+
+    static int requireMaxPlayers(Integer maxPlayers) {
+        if (maxPlayers == null) {
+            return Room.MAX_PLAYERS;
+        }
+        if (maxPlayers < MIN_PLAYERS || maxPlayers > Room.MAX_PLAYERS) {
+            throw new IllegalArgumentException("INVALID_MAX_PLAYERS");
+        }
+        return maxPlayers;
+    }
+
+    static List<Player> snapshotPlayers(Room room) {
+        return List.copyOf(room.players());
+    }
+
+    static RoomSummary toSummary(Room room) {
+        List<Player> players = snapshotPlayers(room);
+        return new RoomSummary(room.roomId(), room.name(), room.hostId(), room.status(), MIN_PLAYERS, room.maxPlayers(),
+                room.size(), players, room.dedicatedServerId(), room.dedicatedServerAddress(), room.dedicatedServerPort(),
+                room.dedicatedServerInternalAddress(), room.startToken(),
+                room.startTokenExpiresAt() == null ? null : room.startTokenExpiresAt().toString());
+    }
+
+    static RoomDetail toDetail(Room room) {
+        List<Player> players = snapshotPlayers(room);
+        return new RoomDetail(room.roomId(), room.name(), room.status(), MIN_PLAYERS, room.maxPlayers(), room.size(),
+                players, room.hostId(), room.dedicatedServerId(), room.dedicatedServerAddress(), room.dedicatedServerPort(),
+                room.dedicatedServerInternalAddress(), room.startToken(),
+                room.startTokenExpiresAt() == null ? null : room.startTokenExpiresAt().toString());
+    }
+}
@@ -3,29 +3,48 @@ package com.BombTagNet.Backend.dao;
 import com.BombTagNet.Backend.common.RoomStatus;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Room {
+    private record Seat(Player player, int slot) {
+    }
+
+    public static final int MAX_PLAYERS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final long SLOT_MASK = (1L << SLOT_BITS) - 1;
+    private static final int STATUS_SHIFT = SLOT_BITS;
+    private static final long STATUS_MASK = 0x3L;
+    private static final int VERSION_SHIFT = 32;
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+
     private final String roomId;
-    private volatile String hostId;
+    private final AtomicReference<String> hostId;
     private final String name;
     private final int maxPlayers;
     private final String password;
-    private volatile RoomStatus status = RoomStatus.WAITING;
+    private final AtomicLong state = new AtomicLong();
+    private volatile long lastActiveMillis = System.currentTimeMillis();
     private volatile String dedicatedServerAddress;
     private volatile int dedicatedServerPort = 0;
     private volatile String dedicatedServerInternalAddress;
     private volatile String dedicatedServerId;
+    private volatile String matchId;
     private volatile String startToken;
     private volatile java.time.Instant startTokenExpiresAt;
 
-    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    private final Map<String, Seat> seats = new ConcurrentHashMap<>();
 
     public Room(String roomId, String hostId, String name, int maxPlayers, String password) {
         this.roomId = roomId;
-        this.hostId = hostId;
+        this.hostId = new AtomicReference<>(hostId);
         this.name = name;
+        if (maxPlayers < 1 || maxPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("INVALID_MAX_PLAYERS");
+        }
         this.maxPlayers = maxPlayers;
         this.password = (password == null || password.isBlank()) ? null : password;
     }
@@ -35,7 +54,25 @@ public class Room {
     }
 
     public String hostId() {
-        return hostId;
+        return hostId.get();
+    }
+
+    public String handOffHost(String leavingHostId) {
+        while (true) {
+            Seat next = seats.values().stream().min(Comparator.comparingInt(Seat::slot)).orElse(null);
+            if (next == null) {
+                return null;
+            }
+
+            String successor = next.player().playerId();
+            if (!hostId.compareAndSet(leavingHostId, successor)) {
+                return null;
+            }
+            if (seats.containsKey(successor)) {
+                return successor;
+            }
+            leavingHostId = successor;
+        }
     }
 
     public String dedicatedServerAddress() {
@@ -76,6 +113,24 @@ public class Room {
         return dedicatedServerId;
     }
 
+    public void setMatchId(String matchId) {
+        this.matchId = matchId;
+    }
+
+    public String matchId() {
+        return matchId;
+    }
+
+    public void touch(long nowMillis) {
+        if (nowMillis > lastActiveMillis) {
+            lastActiveMillis = nowMillis;
+        }
+    }
+
+    public long lastActiveMillis() {
+        return lastActiveMillis;
+    }
+
     public void setStartToken(String token, java.time.Instant expiresAt) {
         this.startToken = token;
         this.startTokenExpiresAt = expiresAt;
@@ -102,38 +157,143 @@ public class Room {
     }
 
     public RoomStatus status() {
-        return status;
+        return statusOf(state.get());
     }
 
-    public void setStatus(RoomStatus s) {
-        this.status = s;
+    public long version() {
+        return state.get() >>> VERSION_SHIFT;
     }
 
     public Collection<Player> players() {
-        return players.values();
+        return seats.values().stream()
+                .sorted(Comparator.comparingInt(Seat::slot))
+                .map(Seat::player)
+                .toList();
     }
 
     public boolean contains(String playerId) {
-        return players.containsKey(playerId);
+        return seats.containsKey(playerId);
+    }
+
+    public int slotOf(String playerId) {
+        Seat seat = seats.get(playerId);
+        return seat == null ? 0 : seat.slot();
     }
 
     public int size() {
-        return players.size();
+        return Long.bitCount(state.get() & SLOT_MASK);
     }
 
     public boolean canJoin() {
-        return status == RoomStatus.WAITING && size() < maxPlayers;
+        long s = state.get();
+        return statusOf(s) == RoomStatus.WAITING && freeSlot(s) > 0;
+    }
+
+    public int admit(Player p) {
+        Seat seated = seats.get(p.playerId());
+        if (seated != null) {
+            return seated.slot();
+        }
+
+        long s;
+        int slot;
+        do {
+            s = state.get();
+            slot = statusOf(s) == RoomStatus.WAITING ? freeSlot(s) : 0;
+            if (slot == 0) {
+                return 0;
+            }
+        } while (!state.compareAndSet(s, next(s, (s & SLOT_MASK) | bit(slot), RoomStatus.WAITING)));
+
+        Seat seat = new Seat(p, slot);
+        Seat raced = seats.putIfAbsent(p.playerId(), seat);
+        if (raced != null) {
+            vacate(slot, 0);
+            return raced.slot();
+        }
+        if (status() == RoomStatus.CLOSED) {
+            seats.remove(p.playerId(), seat);
+            return 0;
+        }
+        return slot;
+    }
+
+    public int remove(String playerId, int minPlayersToStayStarted) {
+        Seat seat = seats.remove(playerId);
+        return seat == null ? -1 : vacate(seat.slot(), minPlayersToStayStarted);
+    }
+
+    public boolean beginStart(int minPlayers) {
+        while (true) {
+            long s = state.get();
+            RoomStatus status = statusOf(s);
+            if ((status != RoomStatus.WAITING && status != RoomStatus.STARTED) || Long.bitCount(s & SLOT_MASK) < minPlayers) {
+                return false;
+            }
+            if (state.compareAndSet(s, next(s, s & SLOT_MASK, RoomStatus.STARTING))) {
+                return true;
+            }
+        }
+    }
+
+    public boolean compareAndSetStatus(RoomStatus expected, RoomStatus status) {
+        while (true) {
+            long s = state.get();
+            if (statusOf(s) != expected) {
+                return false;
+            }
+            if (state.compareAndSet(s, next(s, s & SLOT_MASK, status))) {
+                return true;
+            }
+        }
+    }
+
+    public RoomStatus close() {
+        while (true) {
+            long s = state.get();
+            RoomStatus status = statusOf(s);
+            if (status == RoomStatus.CLOSED) {
+                return null;
+            }
+            if (state.compareAndSet(s, next(s, 0L, RoomStatus.CLOSED))) {
+                seats.clear();
+                return status;
+            }
+        }
+    }
+
+    private int vacate(int slot, int minPlayersToStayStarted) {
+        while (true) {
+            long s = state.get();
+            RoomStatus status = statusOf(s);
+            if (status == RoomStatus.CLOSED || (s & bit(slot)) == 0L) {
+                return Long.bitCount(s & SLOT_MASK);
+            }
+
+            long slots = s & SLOT_MASK & ~bit(slot);
+            int remaining = Long.bitCount(slots);
+            RoomStatus next = status == RoomStatus.STARTED && remaining < minPlayersToStayStarted ? RoomStatus.WAITING : status;
+            if (state.compareAndSet(s, next(s, slots, next))) {
+                return remaining;
+            }
+        }
+    }
+
+    private int freeSlot(long s) {
+        int free = Long.numberOfTrailingZeros(~s & SLOT_MASK);
+        return free < maxPlayers ? free + 1 : 0;
     }
 
-    public void add(Player p) {
-        players.put(p.playerId(), p);
+    private static long bit(int slot) {
+        return 1L << (slot - 1);
     }
 
-    public void remove(String playerId) {
-        players.remove(playerId);
+    private static RoomStatus statusOf(long s) {
+        return STATUSES[(int) ((s >>> STATUS_SHIFT) & STATUS_MASK)];
     }
 
-    public void clearPlayers() {
-        players.clear();
+    private static long next(long s, long slots, RoomStatus status) {
+        long version = (s >>> VERSION_SHIFT) + 1;
+        return (version << VERSION_SHIFT) | ((long) status.ordinal() << STATUS_SHIFT) | slots;
     }
 }
@@ -28,7 +28,8 @@ public class MatchDto {
             String dedicatedServerAddress,
             Integer dedicatedServerPort,
             String startToken,
-            String startTokenExpiresAt
+            String startTokenExpiresAt,
+            Long version
     ) {
     }
 }
@@ -1,7 +1,9 @@
 package com.BombTagNet.Backend.dto;
 
 import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.common.RoomEventType;
 import com.BombTagNet.Backend.common.RoomStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
 
@@ -15,6 +17,13 @@ public class RoomDto {
                               String dedicatedServerInternalAddress, String startToken, String startTokenExpiresAt) {
     }
 
+    public record RoomListing(String roomId, String name, String hostId, RoomStatus status, int currentPlayers,
+                              int maxPlayers, boolean hasPassword) {
+    }
+
+    public record RoomPage(List<RoomListing> rooms, String nextCursor) {
+    }
+
     public record JoinRoomReq(String password) {
     }
 
@@ -30,4 +39,43 @@ public class RoomDto {
     public record StartRoomRes(String matchId, String dedicatedServerAddress, Integer dedicatedServerPort,
                                String startToken, String startTokenExpiresAt) {
     }
-}
\ No newline at end of file
+
+    public record LobbyCommand(String action, String roomId) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RoomEvent(RoomEventType type, String roomId, Player player, String hostId, List<Player> players,
+                            String matchId, String dedicatedServerAddress, Integer dedicatedServerPort,
+                            String startToken, String startTokenExpiresAt, String code) {
+        public static RoomEvent subscribed(String roomId, String hostId, List<Player> players) {
+            return new RoomEvent(RoomEventType.SUBSCRIBED, roomId, null, hostId, players, null, null, null, null, null, null);
+        }
+
+        public static RoomEvent playerJoined(String roomId, Player player) {
+            return new RoomEvent(RoomEventType.PLAYER_JOINED, roomId, player, null, null, null, null, null, null, null, null);
+        }
+
+        public static RoomEvent playerLeft(String roomId, String playerId) {
+            return new RoomEvent(RoomEventType.PLAYER_LEFT, roomId, new Player(playerId, null), null, null, null, null, null,
+                    null, null, null);
+        }
+
+        public static RoomEvent hostChanged(String roomId, String hostId) {
+            return new RoomEvent(RoomEventType.HOST_CHANGED, roomId, null, hostId, null, null, null, null, null, null, null);
+        }
+
+        public static RoomEvent started(String roomId, String matchId, String address, Integer port, String startToken,
+                                        String startTokenExpiresAt) {
+            return new RoomEvent(RoomEventType.ROOM_STARTED, roomId, null, null, null, matchId, address, port, startToken,
+                    startTokenExpiresAt, null);
+        }
+
+        public static RoomEvent closed(String roomId) {
+            return new RoomEvent(RoomEventType.ROOM_CLOSED, roomId, null, null, null, null, null, null, null, null, null);
+        }
+
+        public static RoomEvent error(String roomId, String code) {
+            return new RoomEvent(RoomEventType.ERROR, roomId, null, null, null, null, null, null, null, null, code);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.service.MatchTokenService.TokenPayload;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class ConsumedTokenRegistry {
+    private static final int BUCKETS = 16;
+    private static final int STRIPES = 16;
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+    private final boolean enabled;
+    private final long bucketSeconds;
+    private final AtomicReferenceArray<Bucket> slots = new AtomicReferenceArray<>(BUCKETS + 2);
+
+    public ConsumedTokenRegistry(MatchProperties properties) {
+        this.enabled = properties.isTokenConsumeOnce();
+        long ttlSeconds = Math.max(1L, properties.getTokenTtlSeconds());
+        this.bucketSeconds = Math.max(1L, (ttlSeconds + BUCKETS - 1) / BUCKETS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean tryConsume(TokenPayload payload) {
+        if (!enabled) {
+            return true;
+        }
+
+        long now = Instant.now().getEpochSecond();
+        long expiresAt = payload.expiresAt().getEpochSecond();
+        if (expiresAt <= now) {
+            return false;
+        }
+
+        long nowIndex = Math.floorDiv(now, bucketSeconds);
+        expire(nowIndex);
+
+        long index = Math.floorDiv(expiresAt, bucketSeconds);
+        Bucket bucket = bucketFor(Math.min(index, nowIndex + BUCKETS + 1));
+        return bucket != null && bucket.add(payload.tokenId());
+    }
+
+    public long consumedCount() {
+        long count = 0;
+        for (int i = 0; i < slots.length(); ++i) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null) {
+                count += bucket.size();
+            }
+        }
+        return count;
+    }
+
+    private Bucket bucketFor(long index) {
+        int slot = (int) Math.floorMod(index, (long) slots.length());
+        while (true) {
+            Bucket current = slots.get(slot);
+            if (current != null && current.index == index) {
+                return current;
+            }
+            if (current != null && current.index > index) {
+                return null;
+            }
+            Bucket fresh = new Bucket(index);
+            if (slots.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private void expire(long nowIndex) {
+        int slot = (int) Math.floorMod(nowIndex - 1, (long) slots.length());
+        Bucket stale = slots.get(slot);
+        if (stale != null && stale.index < nowIndex) {
+            slots.compareAndSet(slot, stale, null);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Bucket {
+        private final long index;
+        private final LongSet[] stripes = new LongSet[STRIPES];
+
+        private Bucket(long index) {
+            this.index = index;
+            for (int i = 0; i < STRIPES; ++i) {
+                stripes[i] = new LongSet();
+            }
+        }
+
+        private boolean add(long key) {
+            return stripes[(mix(key) >>> 28) & (STRIPES - 1)].add(key);
+        }
+
+        private long size() {
+            long size = 0;
+            for (LongSet stripe : stripes) {
+                size += stripe.size();
+            }
+            return size;
+        }
+    }
+
+    private static final class LongSet {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private volatile int size;
+        private boolean containsZero;
+
+        private boolean add(long key) {
+            lock.lock();
+            try {
+                if (key == 0L) {
+                    if (containsZero) {
+                        return false;
+                    }
+                    containsZero = true;
+                    size++;
+                    return true;
+                }
+
+                if (!insert(keys, key)) {
+                    return false;
+                }
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] resized = new long[keys.length * 2];
+            for (long key : keys) {
+                if (key != 0L) {
+                    insert(resized, key);
+                }
+            }
+            keys = resized;
+        }
+
+        private static boolean insert(long[] table, long key) {
+            int mask = table.length - 1;
+            int i = mix(key) & mask;
+            while (table[i] != 0L) {
+                if (table[i] == key) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = key;
+            return true;
+        }
+    }
+}
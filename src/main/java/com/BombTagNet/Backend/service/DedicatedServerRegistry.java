@@ -1,12 +1,34 @@
 package com.BombTagNet.Backend.service;
 
+import com.BombTagNet.Backend.common.SlotAllocationPolicy;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.service.MatchFlightEvents.ServerAllocation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
 public class DedicatedServerRegistry {
@@ -22,66 +44,345 @@ public class DedicatedServerRegistry {
             String internalAddress,
             int gamePort,
             DedicatedServerStatus status,
-            Instant lastUpdated
+            Instant lastUpdated,
+            int capacity,
+            int activeMatches,
+            String region
     ) {
     }
 
-    private final Map<String, DedicatedServerRecord> servers = new ConcurrentHashMap<>();
-    private final Object lock = new Object();
+    public record ServerSlot(DedicatedServerRecord server, int slot, String matchId) {
+    }
+
+    public record LivenessStats(long evictions, long staleAllocationsAvoided) {
+    }
+
+    private record ServerEntry(DedicatedServerRecord record, DedicatedServerStatus declared, String[] slots, int used,
+                               long readySeq, long lastSeenMillis) {
+        private int free() {
+            return Math.max(0, record.capacity() - used);
+        }
+
+        private boolean isAllocatable() {
+            return declared == DedicatedServerStatus.READY && free() > 0;
+        }
+    }
+
+    private record ReadyKey(long rank, long readySeq, String dsId, String region) {
+    }
+
+    private record SlotWaiter(String matchId, Supplier<List<String>> preferredRegions,
+                              CompletableFuture<ServerSlot> future) {
+    }
+
+    private static final int MAX_SLOTS = 64;
+
+    private final Map<String, ServerEntry> servers = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListSet<ReadyKey>> readyPools = new ConcurrentHashMap<>();
+    private final AtomicLong readySeq = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleAllocationsAvoided = new AtomicLong();
+    private final Queue<SlotWaiter> waiters = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicBoolean redispatch = new AtomicBoolean();
+    private final RegionResolver regions;
+    private final SlotAllocationPolicy policy;
+    private final long livenessTtlMillis;
+    private final TimingWheel<String> livenessWheel;
+    private final ScheduledExecutorService scheduler;
+    private final Counter allocationsServed;
+    private final Counter allocationsEmpty;
+
+    public DedicatedServerRegistry(DedicatedServerProperties properties, RegionResolver regions, MeterRegistry meters) {
+        this.regions = regions;
+        this.allocationsServed = Counter.builder("bombtag.ds.allocations").tag("outcome", "allocated").register(meters);
+        this.allocationsEmpty = Counter.builder("bombtag.ds.allocations").tag("outcome", "empty").register(meters);
+        for (DedicatedServerStatus status : DedicatedServerStatus.values()) {
+            Gauge.builder("bombtag.ds.servers", this, registry -> registry.countServers(status))
+                    .tag("status", status.name().toLowerCase())
+                    .register(meters);
+        }
+        Gauge.builder("bombtag.ds.slots", this, registry -> registry.countSlots(true)).tag("state", "used").register(meters);
+        Gauge.builder("bombtag.ds.slots", this, registry -> registry.countSlots(false)).tag("state", "total").register(meters);
+        Gauge.builder("bombtag.ds.allocation.waiters", this, DedicatedServerRegistry::waitingAllocations).register(meters);
+        FunctionCounter.builder("bombtag.ds.evictions", evictions, AtomicLong::get).register(meters);
+        this.policy = properties.getAllocationPolicy() == null ? SlotAllocationPolicy.BEST_FIT : properties.getAllocationPolicy();
+        this.livenessTtlMillis = TimeUnit.SECONDS.toMillis(Math.max(0L, properties.getLivenessTtlSeconds()));
+        if (livenessTtlMillis > 0L) {
+            long tickMillis = Math.max(1L, properties.getEvictionTickMillis());
+            this.livenessWheel = new TimingWheel<>(tickMillis, properties.getEvictionWheelSize(), System.currentTimeMillis());
+            this.scheduler = Executors.newSingleThreadScheduledExecutor();
+            scheduler.scheduleAtFixedRate(this::evictSilentServers, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.livenessWheel = null;
+            this.scheduler = null;
+        }
+    }
 
     public DedicatedServerRecord registerOrUpdate(String dsId, String publicAddress, String internalAddress,
                                                   Integer gamePort, DedicatedServerStatus status) {
+        return registerOrUpdate(dsId, publicAddress, internalAddress, gamePort, status, null, null);
+    }
+
+    public DedicatedServerRecord registerOrUpdate(String dsId, String publicAddress, String internalAddress,
+                                                  Integer gamePort, DedicatedServerStatus status, Integer capacity,
+                                                  String region) {
         if (dsId == null || dsId.isBlank()) {
             throw new IllegalArgumentException("dsId required");
         }
 
-        synchronized (lock) {
-            DedicatedServerRecord existing = servers.get(dsId);
-            DedicatedServerStatus effectiveStatus = status != null ? status :
-                    (existing != null ? existing.status() : DedicatedServerStatus.REGISTERED);
+        ServerEntry updated = servers.compute(dsId, (id, existing) -> {
+            DedicatedServerRecord existingRecord = existing == null ? null : existing.record();
+            DedicatedServerStatus declared = status != null ? status :
+                    (existing != null ? existing.declared() : DedicatedServerStatus.REGISTERED);
 
-            String resolvedPublic = normalize(publicAddress, existing == null ? null : existing.publicAddress());
-            String resolvedInternal = normalize(internalAddress, existing == null ? null : existing.internalAddress());
-            int resolvedGamePort = normalizePort(gamePort, existing == null ? null : existing.gamePort());
+            String resolvedPublic = normalize(publicAddress, existingRecord == null ? null : existingRecord.publicAddress());
+            String resolvedInternal = normalize(internalAddress, existingRecord == null ? null : existingRecord.internalAddress());
+            int resolvedGamePort = normalizePort(gamePort, existingRecord == null ? null : existingRecord.gamePort());
+            int resolvedCapacity = normalizeCapacity(capacity, existingRecord == null ? null : existingRecord.capacity());
+            String resolvedRegion = region != null && !region.isBlank() ? regions.normalizeRegion(region) :
+                    (existingRecord != null ? existingRecord.region() : regions.resolve(resolvedPublic));
 
-            DedicatedServerRecord updated = new DedicatedServerRecord(
-                    dsId,
-                    resolvedPublic,
-                    resolvedInternal,
-                    resolvedGamePort,
-                    effectiveStatus,
-                    Instant.now()
-            );
-            servers.put(dsId, updated);
-            return updated;
+            String[] slots = existing == null ? new String[resolvedCapacity] : existing.slots();
+            if (slots.length < resolvedCapacity) {
+                slots = Arrays.copyOf(slots, resolvedCapacity);
+            }
+            if (releasesSingleSlot(declared, resolvedCapacity)) {
+                slots = new String[slots.length];
+            }
+
+            long now = System.currentTimeMillis();
+            if (livenessWheel != null) {
+                livenessWheel.schedule(dsId, now + livenessTtlMillis);
+            }
+            return publish(existing, entry(existing, dsId, resolvedPublic, resolvedInternal, resolvedGamePort,
+                    resolvedCapacity, resolvedRegion, declared, slots, now));
+        });
+        wakeWaiters(updated);
+        return updated.record();
+    }
+
+    public Optional<DedicatedServerRecord> heartbeat(String dsId) {
+        if (dsId == null || dsId.isBlank()) {
+            return Optional.empty();
         }
+
+        long now = System.currentTimeMillis();
+        ServerEntry updated = servers.computeIfPresent(dsId, (id, existing) -> new ServerEntry(existing.record(),
+                existing.declared(), existing.slots(), existing.used(), existing.readySeq(), now));
+        return updated == null ? Optional.empty() : Optional.of(updated.record());
+    }
+
+    public LivenessStats livenessStats() {
+        return new LivenessStats(evictions.get(), staleAllocationsAvoided.get());
+    }
+
+    int scheduledLivenessChecks() {
+        return livenessWheel == null ? 0 : livenessWheel.size();
     }
 
     public Optional<DedicatedServerRecord> find(String dsId) {
         if (dsId == null || dsId.isBlank()) {
             return Optional.empty();
         }
-        return Optional.ofNullable(servers.get(dsId));
+        ServerEntry entry = servers.get(dsId);
+        return entry == null ? Optional.empty() : Optional.of(entry.record());
     }
 
-    public Optional<DedicatedServerRecord> allocateReadyServer() {
-        synchronized (lock) {
-            return servers.values().stream()
-                    .filter(record -> record.status() == DedicatedServerStatus.READY)
-                    .min(Comparator.comparing(DedicatedServerRecord::lastUpdated))
-                    .map(record -> {
-                        DedicatedServerRecord updated = new DedicatedServerRecord(
-                                record.dsId(),
-                                record.publicAddress(),
-                                record.internalAddress(),
-                                record.gamePort(),
-                                DedicatedServerStatus.BUSY,
-                                Instant.now()
-                        );
-                        servers.put(record.dsId(), updated);
-                        return updated;
-                    });
+    public Optional<ServerSlot> allocateReadyServer(String matchId) {
+        ServerAllocation event = new ServerAllocation();
+        event.begin();
+        for (ConcurrentSkipListSet<ReadyKey> pool : readyPools.values()) {
+            Optional<ServerSlot> slot = allocateFrom(pool, matchId);
+            if (slot.isPresent()) {
+                return recordAllocation(event, matchId, slot);
+            }
+        }
+        return recordAllocation(event, matchId, Optional.empty());
+    }
+
+    public Optional<ServerSlot> allocateReadyServer(String matchId, List<String> preferredRegions) {
+        ServerAllocation event = new ServerAllocation();
+        event.begin();
+        for (String region : preferredRegions) {
+            ConcurrentSkipListSet<ReadyKey> pool = readyPools.get(region);
+            if (pool == null) {
+                continue;
+            }
+
+            Optional<ServerSlot> slot = allocateFrom(pool, matchId);
+            if (slot.isPresent()) {
+                return recordAllocation(event, matchId, slot);
+            }
+        }
+        return recordAllocation(event, matchId, Optional.empty());
+    }
+
+    private Optional<ServerSlot> recordAllocation(ServerAllocation event, String matchId, Optional<ServerSlot> slot) {
+        (slot.isPresent() ? allocationsServed : allocationsEmpty).increment();
+        event.end();
+        if (event.shouldCommit()) {
+            event.matchId = matchId;
+            event.allocated = slot.isPresent();
+            event.dsId = slot.map(allocated -> allocated.server().dsId()).orElse(null);
+            event.slot = slot.map(ServerSlot::slot).orElse(-1);
+            event.commit();
+        }
+        return slot;
+    }
+
+    public CompletableFuture<ServerSlot> awaitReadyServer(String matchId) {
+        return awaitReadyServer(matchId, null);
+    }
+
+    public CompletableFuture<ServerSlot> awaitReadyServer(String matchId, Supplier<List<String>> preferredRegions) {
+        SlotWaiter waiter = new SlotWaiter(matchId, preferredRegions, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future().whenComplete((slot, ex) -> {
+            if (ex != null) {
+                waiters.remove(waiter);
+            }
+        });
+        dispatchWaiters();
+        return waiter.future();
+    }
+
+    public int waitingAllocations() {
+        return waiters.size();
+    }
+
+    private long countServers(DedicatedServerStatus status) {
+        long count = 0;
+        for (ServerEntry entry : servers.values()) {
+            if (entry.record().status() == status) {
+                count++;
+            }
         }
+        return count;
+    }
+
+    private long countSlots(boolean used) {
+        long count = 0;
+        for (ServerEntry entry : servers.values()) {
+            count += used ? entry.used() : entry.record().capacity();
+        }
+        return count;
+    }
+
+    public void dispatchWaiters() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+
+        redispatch.set(true);
+        if (dispatchLock.isHeldByCurrentThread()) {
+            return;
+        }
+        while (redispatch.get() && dispatchLock.tryLock()) {
+            try {
+                redispatch.set(false);
+                drainWaiters();
+            } finally {
+                dispatchLock.unlock();
+            }
+        }
+    }
+
+    private void drainWaiters() {
+        for (SlotWaiter waiter : waiters) {
+            if (waiter.future().isDone()) {
+                waiters.remove(waiter);
+                continue;
+            }
+            if (!hasReadyServer()) {
+                return;
+            }
+
+            List<String> preferred = waiter.preferredRegions() == null ? null : waiter.preferredRegions().get();
+            Optional<ServerSlot> slot = preferred == null
+                    ? allocateReadyServer(waiter.matchId())
+                    : allocateReadyServer(waiter.matchId(), preferred);
+            if (slot.isEmpty()) {
+                continue;
+            }
+
+            waiters.remove(waiter);
+            if (!waiter.future().complete(slot.get())) {
+                release(slot.get().server().dsId(), waiter.matchId());
+            }
+        }
+    }
+
+    private boolean hasReadyServer() {
+        for (ConcurrentSkipListSet<ReadyKey> pool : readyPools.values()) {
+            if (!pool.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void wakeWaiters(ServerEntry updated) {
+        if (updated != null && updated.isAllocatable()) {
+            dispatchWaiters();
+        }
+    }
+
+    private Optional<ServerSlot> allocateFrom(ConcurrentSkipListSet<ReadyKey> pool, String matchId) {
+        ReadyKey key;
+        while ((key = pool.pollFirst()) != null) {
+            ReadyKey candidate = key;
+            long now = System.currentTimeMillis();
+            ServerEntry[] allocated = new ServerEntry[1];
+            int[] slot = new int[1];
+            servers.computeIfPresent(candidate.dsId(), (id, existing) -> {
+                if (!existing.isAllocatable() || !candidate.equals(readyKey(existing))) {
+                    return existing;
+                }
+
+                if (isSilent(existing, now)) {
+                    staleAllocationsAvoided.incrementAndGet();
+                    evictions.incrementAndGet();
+                    livenessWheel.cancel(id);
+                    return publish(existing, null);
+                }
+
+                String[] slots = existing.slots().clone();
+                slot[0] = firstFreeSlot(slots, existing.record().capacity());
+                slots[slot[0]] = matchId;
+                allocated[0] = publish(existing, withSlots(existing, slots));
+                return allocated[0];
+            });
+
+            if (allocated[0] != null) {
+                return Optional.of(new ServerSlot(allocated[0].record(), slot[0], matchId));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<DedicatedServerRecord> releaseSlot(String dsId, String matchId) {
+        ServerEntry updated = release(dsId, matchId);
+        wakeWaiters(updated);
+        return updated == null ? Optional.empty() : Optional.of(updated.record());
+    }
+
+    private ServerEntry release(String dsId, String matchId) {
+        if (dsId == null || dsId.isBlank() || matchId == null) {
+            return null;
+        }
+
+        return servers.computeIfPresent(dsId, (id, existing) -> {
+            String[] slots = existing.slots();
+            for (int i = 0; i < slots.length; ++i) {
+                if (matchId.equals(slots[i])) {
+                    String[] released = slots.clone();
+                    released[i] = null;
+                    return publish(existing, withSlots(existing, released));
+                }
+            }
+            return existing;
+        });
     }
 
     public Optional<DedicatedServerRecord> updateStatus(String dsId, DedicatedServerStatus status) {
@@ -89,22 +390,122 @@ public class DedicatedServerRegistry {
             return Optional.empty();
         }
 
-        synchronized (lock) {
-            DedicatedServerRecord existing = servers.get(dsId);
-            if (existing == null) {
-                return Optional.empty();
+        ServerEntry updated = servers.computeIfPresent(dsId, (id, existing) -> {
+            DedicatedServerRecord record = existing.record();
+            String[] slots = releasesSingleSlot(status, record.capacity()) ? new String[existing.slots().length] : existing.slots();
+            return publish(existing, entry(existing, dsId, record.publicAddress(), record.internalAddress(),
+                    record.gamePort(), record.capacity(), record.region(), status, slots, System.currentTimeMillis()));
+        });
+        if (updated == null) {
+            return Optional.empty();
+        }
+
+        wakeWaiters(updated);
+        return Optional.of(updated.record());
+    }
+
+    private boolean releasesSingleSlot(DedicatedServerStatus declared, int capacity) {
+        return declared == DedicatedServerStatus.READY && capacity == 1;
+    }
+
+    private ServerEntry withSlots(ServerEntry existing, String[] slots) {
+        DedicatedServerRecord record = existing.record();
+        return entry(existing, record.dsId(), record.publicAddress(), record.internalAddress(), record.gamePort(),
+                record.capacity(), record.region(), existing.declared(), slots, existing.lastSeenMillis());
+    }
+
+    private ServerEntry entry(ServerEntry existing, String dsId, String publicAddress, String internalAddress, int gamePort,
+                              int capacity, String region, DedicatedServerStatus declared, String[] slots,
+                              long lastSeenMillis) {
+        int used = 0;
+        for (String match : slots) {
+            if (match != null) {
+                used++;
             }
+        }
 
-            DedicatedServerRecord updated = new DedicatedServerRecord(
-                    existing.dsId(),
-                    existing.publicAddress(),
-                    existing.internalAddress(),
-                    existing.gamePort(),
-                    status,
-                    Instant.now()
-            );
-            servers.put(dsId, updated);
-            return Optional.of(updated);
+        boolean allocatable = declared == DedicatedServerStatus.READY && used < capacity;
+        DedicatedServerStatus status = declared == DedicatedServerStatus.REGISTERED ? DedicatedServerStatus.REGISTERED :
+                (allocatable ? DedicatedServerStatus.READY : DedicatedServerStatus.BUSY);
+        DedicatedServerRecord record = new DedicatedServerRecord(dsId, publicAddress, internalAddress, gamePort, status,
+                Instant.now(), capacity, used, region);
+
+        long seq = 0L;
+        if (allocatable) {
+            seq = existing != null && existing.isAllocatable() ? existing.readySeq() : readySeq.incrementAndGet();
+        }
+        return new ServerEntry(record, declared, slots, used, seq, lastSeenMillis);
+    }
+
+    private int firstFreeSlot(String[] slots, int capacity) {
+        for (int i = 0; i < capacity; ++i) {
+            if (slots[i] == null) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("NO_FREE_SLOT");
+    }
+
+    private ReadyKey readyKey(ServerEntry entry) {
+        if (!entry.isAllocatable()) {
+            return null;
+        }
+
+        long rank = policy == SlotAllocationPolicy.LEAST_LOADED
+                ? (long) entry.used() * MAX_SLOTS * MAX_SLOTS / entry.record().capacity()
+                : entry.free();
+        return new ReadyKey(rank, entry.readySeq(), entry.record().dsId(), entry.record().region());
+    }
+
+    private boolean isSilent(ServerEntry entry, long now) {
+        return livenessTtlMillis > 0L && now - entry.lastSeenMillis() >= livenessTtlMillis;
+    }
+
+    private void evictSilentServers() {
+        livenessWheel.advance(System.currentTimeMillis(), this::expireIfSilent);
+    }
+
+    private long expireIfSilent(String dsId) {
+        long[] next = new long[1];
+        servers.computeIfPresent(dsId, (id, existing) -> {
+            if (!isSilent(existing, System.currentTimeMillis())) {
+                next[0] = existing.lastSeenMillis() + livenessTtlMillis;
+                return existing;
+            }
+
+            evictions.incrementAndGet();
+            return publish(existing, null);
+        });
+        return next[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private ServerEntry publish(ServerEntry previous, ServerEntry updated) {
+        syncReadyPool(previous, updated);
+        return updated;
+    }
+
+    private void syncReadyPool(ServerEntry previous, ServerEntry updated) {
+        ReadyKey previousKey = previous == null ? null : readyKey(previous);
+        ReadyKey updatedKey = updated == null ? null : readyKey(updated);
+        if (Objects.equals(previousKey, updatedKey)) {
+            return;
+        }
+        if (previousKey != null) {
+            ConcurrentSkipListSet<ReadyKey> pool = readyPools.get(previousKey.region());
+            if (pool != null) {
+                pool.remove(previousKey);
+            }
+        }
+        if (updatedKey != null) {
+            readyPools.computeIfAbsent(updatedKey.region(), region -> new ConcurrentSkipListSet<>(
+                    Comparator.comparingLong(ReadyKey::rank).thenComparingLong(ReadyKey::readySeq))).add(updatedKey);
         }
     }
 
@@ -127,4 +528,9 @@ public class DedicatedServerRegistry {
         }
         return 0;
     }
-}
\ No newline at end of file
+
+    private int normalizeCapacity(Integer candidate, Integer fallback) {
+        int resolved = candidate != null && candidate > 0 ? candidate : (fallback != null && fallback > 0 ? fallback : 1);
+        return Math.min(MAX_SLOTS, resolved);
+    }
+}
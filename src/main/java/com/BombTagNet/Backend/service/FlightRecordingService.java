@@ -0,0 +1,96 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.FlightRecorderProperties;
+import com.BombTagNet.Backend.service.MatchFlightEvents.ShardLockWait;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(prefix = "game.flight-recorder", name = "enabled", havingValue = "true")
+public class FlightRecordingService {
+    public record RecordingDump(String path, long bytes, Instant from, Instant to) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final Recording recording;
+    private final Duration maxAge;
+    private final Path dumpDirectory;
+
+    public FlightRecordingService(FlightRecorderProperties properties) {
+        this.maxAge = Duration.ofMinutes(Math.max(1L, properties.getMaxAgeMinutes()));
+        this.dumpDirectory = Path.of(properties.getDumpDirectory()).toAbsolutePath();
+        try {
+            this.recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("game.flight-recorder.settings is not a known JFR configuration: "
+                    + properties.getSettings(), ex);
+        }
+
+        recording.setName("bombtag");
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(Math.max(1L, properties.getMaxSizeMb()) * 1024L * 1024L);
+        for (Class<? extends Event> type : MatchFlightEvents.TYPES) {
+            recording.enable(type);
+        }
+        recording.enable(ShardLockWait.class)
+                .withThreshold(Duration.ofMillis(Math.max(0L, properties.getLockWaitThresholdMillis())))
+                .withStackTrace();
+        recording.start();
+        log.info("Continuous flight recording started (settings={}, maxAge={})", properties.getSettings(), maxAge);
+    }
+
+    public RecordingDump dump(Duration window) {
+        Instant to = Instant.now();
+        Instant from = to.minus(window.compareTo(maxAge) > 0 ? maxAge : window);
+        Path target = dumpDirectory.resolve("bombtag-" + FILE_TIME.format(to) + ".jfr");
+        FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+        try {
+            Files.createDirectories(dumpDirectory);
+            long snapshot = flightRecorder.cloneRecording(recording.getId(), true);
+            try (OutputStream out = Files.newOutputStream(target)) {
+                long stream = flightRecorder.openStream(snapshot, Map.of("startTime", from.toString(), "endTime", to.toString()));
+                try {
+                    byte[] block;
+                    while ((block = flightRecorder.readStream(stream)) != null) {
+                        out.write(block);
+                    }
+                } finally {
+                    flightRecorder.closeStream(stream);
+                }
+            } finally {
+                flightRecorder.closeRecording(snapshot);
+            }
+            return new RecordingDump(target.toString(), Files.size(target), from, to);
+        } catch (IOException ex) {
+            log.warn("Failed to dump flight recording to {}", target, ex);
+            throw new IllegalStateException("FLIGHT_RECORDING_DUMP_FAILED", ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        recording.close();
+    }
+}
@@ -0,0 +1,144 @@
+package com.BombTagNet.Backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class IndexedQueue<E extends IndexedQueue.Node> {
+    abstract static class Node {
+        int queueIndex = -1;
+    }
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] items = new Object[MIN_CAPACITY];
+    private int[] tree = new int[MIN_CAPACITY + 1];
+    private int head = MIN_CAPACITY / 4;
+    private int tail = MIN_CAPACITY / 4;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void addLast(E node) {
+        if (tail == items.length) {
+            rebuild();
+        }
+        place(node, tail++);
+    }
+
+    void addFirst(E node) {
+        if (head == 0) {
+            rebuild();
+        }
+        place(node, --head);
+    }
+
+    @SuppressWarnings("unchecked")
+    E peekFirst() {
+        skipRemoved();
+        return head < tail ? (E) items[head] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<E> peekFirst(int limit) {
+        List<E> first = new ArrayList<>(Math.min(limit, size));
+        for (int i = head; i < tail && first.size() < limit; ++i) {
+            if (items[i] != null) {
+                first.add((E) items[i]);
+            }
+        }
+        return first;
+    }
+
+    E pollFirst() {
+        E first = peekFirst();
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    boolean remove(E node) {
+        int index = node.queueIndex;
+        if (index < 0 || index >= tail || items[index] != node) {
+            return false;
+        }
+
+        items[index] = null;
+        node.queueIndex = -1;
+        update(index, -1);
+        size--;
+        if (size == 0) {
+            head = tail = items.length / 4;
+        }
+        return true;
+    }
+
+    int position(E node) {
+        int index = node.queueIndex;
+        int[] t = tree;
+        if (index < 0 || index + 1 >= t.length) {
+            return -1;
+        }
+
+        int sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += t[i];
+        }
+        return sum;
+    }
+
+    private void place(E node, int index) {
+        items[index] = node;
+        node.queueIndex = index;
+        update(index, 1);
+        size++;
+    }
+
+    private void update(int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void skipRemoved() {
+        while (head < tail && items[head] == null) {
+            head++;
+        }
+    }
+
+    private void rebuild() {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1);
+        Object[] rebuilt = new Object[capacity];
+        int[] rebuiltTree = new int[capacity + 1];
+        int offset = (capacity - size) / 4;
+
+        int next = offset;
+        for (int i = head; i < tail; ++i) {
+            Object item = items[i];
+            if (item != null) {
+                rebuilt[next] = item;
+                ((Node) item).queueIndex = next;
+                rebuiltTree[next + 1] = 1;
+                next++;
+            }
+        }
+
+        for (int i = 1; i <= capacity; ++i) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                rebuiltTree[parent] += rebuiltTree[i];
+            }
+        }
+
+        items = rebuilt;
+        tree = rebuiltTree;
+        head = offset;
+        tail = next;
+    }
+}
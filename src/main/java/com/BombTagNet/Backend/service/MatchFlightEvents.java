@@ -0,0 +1,139 @@
+package com.BombTagNet.Backend.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.List;
+
+final class MatchFlightEvents {
+    static final List<Class<? extends Event>> TYPES = List.of(TicketEnqueued.class, TicketPromoted.class,
+            CountdownFired.class, ServerAllocation.class, MatchStarted.class, TokenVerified.class, ShardLockWait.class);
+
+    private MatchFlightEvents() {
+    }
+
+    @Name("bombtag.TicketEnqueued")
+    @Label("Ticket Enqueued")
+    @Category({"BombTag", "Matchmaking"})
+    @StackTrace(false)
+    static final class TicketEnqueued extends Event {
+        @Label("Ticket Id")
+        String ticketId;
+
+        @Label("Player Id")
+        String playerId;
+
+        @Label("Region")
+        String region;
+
+        @Label("Matched Immediately")
+        boolean forming;
+    }
+
+    @Name("bombtag.TicketPromoted")
+    @Label("Ticket Promoted To Forming")
+    @Category({"BombTag", "Matchmaking"})
+    @StackTrace(false)
+    static final class TicketPromoted extends Event {
+        @Label("Ticket Id")
+        String ticketId;
+
+        @Label("Match Id")
+        String matchId;
+
+        @Label("Region")
+        String region;
+
+        @Label("Time Queued")
+        @Timespan(Timespan.MILLISECONDS)
+        long queued;
+    }
+
+    @Name("bombtag.CountdownFired")
+    @Label("Match Countdown Fired")
+    @Category({"BombTag", "Matchmaking"})
+    @StackTrace(false)
+    static final class CountdownFired extends Event {
+        @Label("Match Id")
+        String matchId;
+
+        @Label("Region")
+        String region;
+
+        @Label("Players")
+        int players;
+
+        @Label("Match Started")
+        boolean started;
+    }
+
+    @Name("bombtag.ServerAllocation")
+    @Label("Dedicated Server Allocation")
+    @Category({"BombTag", "Dedicated Servers"})
+    @StackTrace(false)
+    static final class ServerAllocation extends Event {
+        @Label("Match Id")
+        String matchId;
+
+        @Label("Dedicated Server Id")
+        String dsId;
+
+        @Label("Slot")
+        int slot;
+
+        @Label("Allocated")
+        boolean allocated;
+    }
+
+    @Name("bombtag.MatchStarted")
+    @Label("Match Started")
+    @Category({"BombTag", "Matchmaking"})
+    @StackTrace(false)
+    static final class MatchStarted extends Event {
+        @Label("Match Id")
+        String matchId;
+
+        @Label("Dedicated Server Id")
+        String dsId;
+
+        @Label("Region")
+        String region;
+
+        @Label("Players")
+        int players;
+
+        @Label("Time Forming")
+        @Timespan(Timespan.MILLISECONDS)
+        long forming;
+    }
+
+    @Name("bombtag.TokenVerified")
+    @Label("Start Token Verified")
+    @Category({"BombTag", "Tokens"})
+    @StackTrace(false)
+    static final class TokenVerified extends Event {
+        @Label("Match Id")
+        String matchId;
+
+        @Label("Dedicated Server Id")
+        String dsId;
+
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("bombtag.ShardLockWait")
+    @Label("Match Shard Lock Wait")
+    @Category({"BombTag", "Locks"})
+    static final class ShardLockWait extends Event {
+        @Label("Region")
+        String region;
+
+        @Label("Operation")
+        String operation;
+    }
+}
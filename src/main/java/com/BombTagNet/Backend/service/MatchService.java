@@ -1,17 +1,42 @@
 package com.BombTagNet.Backend.service;
 
+import com.BombTagNet.Backend.common.VirtualThreadUtils;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
 import com.BombTagNet.Backend.dao.Player;
 import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerRecord;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.ServerSlot;
+import com.BombTagNet.Backend.service.MatchFlightEvents.CountdownFired;
+import com.BombTagNet.Backend.service.MatchFlightEvents.MatchStarted;
+import com.BombTagNet.Backend.service.MatchFlightEvents.ShardLockWait;
+import com.BombTagNet.Backend.service.MatchFlightEvents.TicketEnqueued;
+import com.BombTagNet.Backend.service.MatchFlightEvents.TicketPromoted;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
 
 @Service
 public class MatchService {
@@ -41,81 +66,228 @@ public class MatchService {
             String dedicatedServerAddress,
             Integer dedicatedServerPort,
             String startToken,
-            Instant startTokenExpiresAt
+            Instant startTokenExpiresAt,
+            long version
     ) {
     }
 
+    private static final Logger log = LoggerFactory.getLogger(MatchService.class);
     private static final int MIN_PLAYERS = 3;
     private static final int MAX_PLAYERS = 4;
     private static final int WAIT_FOR_FOURTH_SECONDS = 5;
+    private static final long POSITION_NOTIFY_DELAY_MILLIS = 200;
+    private static final int FORMATION_PASS_BUDGET = 256;
+    private static final int POSITION_READ_ATTEMPTS = 4;
+    private static final long RETENTION_TICK_MILLIS = 1000;
+    private static final int RETENTION_WHEEL_SIZE = 64;
 
-    private final Object lock = new Object();
-    private final Deque<MatchTicket> queue = new ArrayDeque<>();
-    private final Map<String, MatchTicket> ticketsById = new HashMap<>();
-    private final Map<String, MatchTicket> ticketsByPlayer = new HashMap<>();
+    private final int shardCount;
+    private final int defaultRating;
+    private final int ratingBucketWidth;
+    private final int ratingWindowBase;
+    private final int ratingWindowPerSecond;
+    private final int ratingWindowMax;
+    private final long ticketRetentionMillis;
+    private final TimingWheel<MatchTicket> retiredTickets;
+    private final Map<String, MatchShard[]> shardsByRegion = new ConcurrentHashMap<>();
+    private final Map<String, MatchTicket> ticketsById = new ConcurrentHashMap<>();
+    private final Map<String, MatchTicket> ticketsByPlayer = new ConcurrentHashMap<>();
     private final AtomicInteger ticketSeq = new AtomicInteger(1);
     private final AtomicInteger matchSeq = new AtomicInteger(1);
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Clock clock;
+    private final Executor worker;
     private final DedicatedServerRegistry dedicatedServers;
     private final MatchTokenService tokens;
+    private final RegionResolver regions;
+    private final LongAdder formingTickets = new LongAdder();
+    private final Timer queuedWait;
+    private final Timer formingWait;
+    private final Timer matchWait;
 
-    private PendingMatch pendingMatch;
+    @Autowired
+    public MatchService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens, RegionResolver regions,
+                        MatchProperties properties, ExecutionProperties execution, MeterRegistry meters) {
+        this(dedicatedServers, tokens, regions, properties, execution, meters, Clock.systemUTC());
+    }
 
-    public MatchService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens) {
+    MatchService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens, RegionResolver regions,
+                 MatchProperties properties, ExecutionProperties execution, MeterRegistry meters, Clock clock) {
+        this.clock = clock;
+        this.worker = workerFor(execution);
         this.dedicatedServers = dedicatedServers;
         this.tokens = tokens;
+        this.regions = regions;
+        this.shardCount = Math.max(1, properties.getQueueShards());
+        this.defaultRating = RatingIndex.clamp(properties.getDefaultRating());
+        this.ratingBucketWidth = Math.max(1, properties.getRatingBucketWidth());
+        this.ratingWindowBase = Math.max(0, properties.getRatingWindowBase());
+        this.ratingWindowPerSecond = Math.max(0, properties.getRatingWindowPerSecond());
+        this.ratingWindowMax = Math.max(ratingWindowBase, properties.getRatingWindowMax());
+        this.ticketRetentionMillis = TimeUnit.SECONDS.toMillis(Math.max(0L, properties.getTicketRetentionSeconds()));
+        this.retiredTickets = new TimingWheel<>(RETENTION_TICK_MILLIS, RETENTION_WHEEL_SIZE, clock.millis());
+        this.queuedWait = waitTimer(meters, "queued");
+        this.formingWait = waitTimer(meters, "forming");
+        this.matchWait = waitTimer(meters, "total");
+        long rebalanceIntervalMillis = properties.getRebalanceIntervalMillis();
+        if (rebalanceIntervalMillis > 0L) {
+            scheduler.scheduleWithFixedDelay(this::rebalance, rebalanceIntervalMillis, rebalanceIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleAtFixedRate(this::reclaimRetiredTickets, RETENTION_TICK_MILLIS, RETENTION_TICK_MILLIS, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("bombtag.match.tickets", this, MatchService::queuedTickets).tag("state", "queued").register(meters);
+        Gauge.builder("bombtag.match.tickets", this, MatchService::formingTickets).tag("state", "forming").register(meters);
+    }
+
+    private static Timer waitTimer(MeterRegistry meters, String stage) {
+        return Timer.builder("bombtag.match.wait")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(meters);
+    }
+
+    public int queuedTickets() {
+        int queued = 0;
+        for (MatchShard[] shards : shardsByRegion.values()) {
+            for (MatchShard shard : shards) {
+                queued += shard.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    public long formingTickets() {
+        return formingTickets.sum();
     }
 
     public MatchQueueStatus enqueue(String playerId, String nickname, String address) {
-        long now = System.currentTimeMillis();
+        return enqueue(playerId, nickname, address, null);
+    }
+
+    public MatchQueueStatus enqueue(String playerId, String nickname, String address, Integer rating) {
+        TicketEnqueued event = new TicketEnqueued();
+        event.begin();
+        long now = clock.millis();
 
-        synchronized (lock) {
-            MatchTicket existing = ticketsByPlayer.get(playerId);
-            if (existing != null) {
-                if (existing.status == TicketStatus.MATCHED || existing.status == TicketStatus.CANCELLED) {
+        MatchTicket existing = ticketsByPlayer.get(playerId);
+        if (existing != null && isActive(existing)) {
+            return statusFor(existing, now);
+        }
+
+        String region = regions.resolve(address);
+        MatchShard[] shards = shardsFor(region);
+        MatchShard shard = shards[Math.floorMod(playerId.hashCode(), shards.length)];
+        long stamp = writeLock(shard, "enqueue");
+
+        MatchTicket ticket;
+        try {
+            existing = ticketsByPlayer.get(playerId);
+            if (existing != null && isActive(existing)) {
+                ticket = existing;
+            } else {
+                if (existing != null) {
                     removeTicket(existing);
+                }
+
+                ticket = new MatchTicket("t_" + ticketSeq.getAndIncrement(), new Player(playerId, nickname), address == null ? null : address.trim(), region,
+                        rating == null ? defaultRating : rating, now);
+                ticket.shard = shard;
+                MatchTicket raced = ticketsByPlayer.putIfAbsent(playerId, ticket);
+                if (raced != null) {
+                    ticket = raced;
                 } else {
-                    return statusFor(existing, now);
+                    ticketsById.put(ticket.ticketId, ticket);
+                    assignTicket(shard, ticket, now);
                 }
             }
+        } finally {
+            shard.lock.unlockWrite(stamp);
+        }
 
-            MatchTicket ticket = new MatchTicket("t_" + ticketSeq.getAndIncrement(), new Player(playerId, nickname), address == null ? null : address.trim());
-            ticketsById.put(ticket.ticketId, ticket);
-            ticketsByPlayer.put(playerId, ticket);
-
-            assignTicket(ticket, now);
-
-            return statusFor(ticket, now);
+        event.end();
+        if (event.shouldCommit()) {
+            event.ticketId = ticket.ticketId;
+            event.playerId = playerId;
+            event.region = region;
+            event.forming = ticket.status != TicketStatus.QUEUED;
+            event.commit();
         }
+        return statusFor(ticket, now);
     }
 
     public Optional<MatchQueueStatus> status(String playerId, String ticketId) {
-        long now = System.currentTimeMillis();
-        synchronized (lock) {
-            MatchTicket ticket = ticketsById.get(ticketId);
-            if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
-                return Optional.empty();
-            }
+        long now = clock.millis();
+        MatchTicket ticket = ticketsById.get(ticketId);
+        if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
+            return Optional.empty();
+        }
 
-            return Optional.of(statusFor(ticket, now));
+        return Optional.of(statusFor(ticket, now));
+    }
+
+    public Optional<CompletableFuture<MatchQueueStatus>> awaitChange(String playerId, String ticketId, long version) {
+        MatchTicket ticket = ticketsById.get(ticketId);
+        if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
+            return Optional.empty();
+        }
+
+        MatchQueueStatus current = statusFor(ticket, clock.millis());
+        if (current.version() != version) {
+            return Optional.of(CompletableFuture.completedFuture(current));
+        }
+
+        CompletableFuture<MatchQueueStatus> future = new CompletableFuture<>();
+        ticket.waiters.removeIf(waiter -> waiter.future().isDone());
+        ticket.waiters.add(new ChangeWaiter(version, future));
+
+        MatchShard shard = ticket.shard;
+        if (current.status() == TicketStatus.QUEUED) {
+            shard.positionWatchers.add(ticket);
         }
+
+        notifyWaiters(ticket);
+        return Optional.of(future);
+    }
+
+    public Optional<Flow.Publisher<MatchQueueStatus>> watch(String playerId, String ticketId) {
+        MatchTicket ticket = ticketsById.get(ticketId);
+        if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new TicketStatusPublisher(this, worker, playerId, ticketId));
     }
 
     public Optional<MatchQueueStatus> cancel(String playerId, String ticketId) {
-        long now = System.currentTimeMillis();
-        synchronized (lock) {
-            MatchTicket ticket = ticketsById.get(ticketId);
-            if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
-                return Optional.empty();
+        long now = clock.millis();
+        MatchTicket ticket = ticketsById.get(ticketId);
+        if (ticket == null || !Objects.equals(ticket.player.playerId(), playerId)) {
+            return Optional.empty();
+        }
+
+        MatchShard shard;
+        long stamp;
+        while (true) {
+            shard = ticket.shard;
+            stamp = writeLock(shard, "cancel");
+            if (ticket.shard == shard) {
+                break;
             }
+            shard.lock.unlockWrite(stamp);
+        }
 
+        try {
             if (ticket.status == TicketStatus.MATCHED) {
                 return Optional.of(statusFor(ticket, now));
             }
 
             if (ticket.status == TicketStatus.QUEUED) {
-                queue.remove(ticket);
+                shard.dequeue(ticket);
                 ticket.status = TicketStatus.CANCELLED;
+                touch(ticket);
+                queueChanged(shard);
                 removeTicket(ticket);
                 return Optional.of(statusFor(ticket, now));
             }
@@ -124,28 +296,41 @@ public class MatchService {
                 PendingMatch match = ticket.pendingMatch;
                 if (match != null) {
                     match.remove(ticket);
+                    formingTickets.decrement();
                     ticket.pendingMatch = null;
                     ticket.status = TicketStatus.CANCELLED;
+                    touch(ticket);
                     if (match.countdown != null) {
                         match.countdown.cancel(false);
                     }
 
                     if (match.tickets.size() >= MIN_PLAYERS) {
-                        match.deadline = Instant.now().plusSeconds(WAIT_FOR_FOURTH_SECONDS);
-                        match.countdown = scheduler.schedule(() -> onCountdownFinished(match.matchId), WAIT_FOR_FOURTH_SECONDS, TimeUnit.SECONDS);
+                        if (match.serverRequest == null) {
+                            match.deadline = Instant.ofEpochMilli(now).plusSeconds(WAIT_FOR_FOURTH_SECONDS);
+                            match.countdown = schedule(shard, match, WAIT_FOR_FOURTH_SECONDS);
+                        }
+                        openMatch(shard, match);
+                        touchAll(match);
                     } else {
+                        if (match.serverRequest != null) {
+                            match.serverRequest.cancel(false);
+                        }
                         List<MatchTicket> remaining = new ArrayList<>(match.tickets);
                         match.tickets.clear();
-                        pendingMatch = null;
+                        formingTickets.add(-remaining.size());
+                        shard.formingMatches.remove(match.matchId);
+                        closeMatch(shard, match);
 
                         for (int i = remaining.size() - 1; i >= 0; --i) {
                             MatchTicket other = remaining.get(i);
                             other.pendingMatch = null;
                             other.status = TicketStatus.QUEUED;
-                            queue.addFirst(other);
+                            shard.requeueFirst(other);
+                            touch(other);
                         }
 
-                        tryPromote(now);
+                        tryPromote(shard, now);
+                        queueChanged(shard);
                     }
                 }
 
@@ -154,79 +339,384 @@ public class MatchService {
             }
 
             ticket.status = TicketStatus.CANCELLED;
+            touch(ticket);
             removeTicket(ticket);
             return Optional.of(statusFor(ticket, now));
+        } finally {
+            shard.lock.unlockWrite(stamp);
         }
     }
 
-    private void assignTicket(MatchTicket ticket, long now) {
-        if (pendingMatch != null && pendingMatch.tickets.size() < MAX_PLAYERS) {
-            pendingMatch.add(ticket);
-            if (pendingMatch.tickets.size() >= MAX_PLAYERS) {
-                startMatch(pendingMatch);
-            }
+    private void assignTicket(MatchShard shard, MatchTicket ticket, long now) {
+        PendingMatch open = bestOpenMatch(shard, ticket, now);
+        if (open != null) {
+            fill(shard, open, ticket);
             return;
         }
 
-        queue.addLast(ticket);
-        tryPromote(now);
+        shard.enqueue(ticket);
+        if (formAround(shard, ticket, now)) {
+            queueChanged(shard);
+        }
     }
 
-    private void tryPromote(long now) {
-        if (pendingMatch != null) {
-            return;
+    private void tryPromote(MatchShard shard, long now) {
+        boolean dequeued = false;
+        for (MatchTicket anchor : shard.queue.peekFirst(FORMATION_PASS_BUDGET)) {
+            if (anchor.status != TicketStatus.QUEUED || anchor.shard != shard) {
+                continue;
+            }
+
+            PendingMatch open = bestOpenMatch(shard, anchor, now);
+            if (open != null) {
+                shard.dequeue(anchor);
+                fill(shard, open, anchor);
+                dequeued = true;
+            } else {
+                dequeued |= formAround(shard, anchor, now);
+            }
         }
 
-        if (queue.size() < MIN_PLAYERS) {
+        if (dequeued) {
+            queueChanged(shard);
+        }
+    }
+
+    private boolean refillOpenMatches(MatchShard shard, long now) {
+        if (shard.openMatches.size() == 0) {
+            return false;
+        }
+
+        boolean dequeued = false;
+        for (PendingMatch forming : new ArrayList<>(shard.formingMatches.values())) {
+            MatchTicket candidate;
+            while (forming.open && (candidate = bestCandidate(shard, forming, now)) != null) {
+                shard.dequeue(candidate);
+                fill(shard, forming, candidate);
+                dequeued = true;
+            }
+        }
+        return dequeued;
+    }
+
+    private boolean formAround(MatchShard shard, MatchTicket anchor, long now) {
+        List<RatingIndex.Node<MatchTicket>> group = shard.ratings.findGroup(anchor.ratingNode, MIN_PLAYERS,
+                ratingWindowMax, now, this::ratingWindow);
+        if (group == null) {
+            return false;
+        }
+
+        PendingMatch match = new PendingMatch("m_" + matchSeq.getAndIncrement(), now);
+        for (RatingIndex.Node<MatchTicket> node : group) {
+            shard.dequeue(node.value);
+            form(match, node.value, now);
+        }
+
+        match.deadline = Instant.ofEpochMilli(now).plusSeconds(WAIT_FOR_FOURTH_SECONDS);
+        match.countdown = schedule(shard, match, WAIT_FOR_FOURTH_SECONDS);
+        shard.formingMatches.put(match.matchId, match);
+        openMatch(shard, match);
+        touchAll(match);
+        return true;
+    }
+
+    private PendingMatch bestOpenMatch(MatchShard shard, MatchTicket ticket, long now) {
+        if (shard.openMatches.size() == 0) {
+            return null;
+        }
+
+        PendingMatch best = null;
+        int bestSpread = Integer.MAX_VALUE;
+        for (RatingIndex.Node<PendingMatch> node : shard.openMatches.nearest(ticket.ratingNode.rating, ratingWindowMax,
+                MAX_PLAYERS * 2, null)) {
+            PendingMatch open = node.value;
+            int spread = Math.max(open.maxRating, ticket.ratingNode.rating) - Math.min(open.minRating, ticket.ratingNode.rating);
+            long oldest = Math.min(open.oldestEnqueuedAtMillis, ticket.enqueuedAtMillis);
+            if (spread < bestSpread && spread <= ratingWindow(now - oldest)) {
+                best = open;
+                bestSpread = spread;
+            }
+        }
+        return best;
+    }
+
+    private MatchTicket bestCandidate(MatchShard shard, PendingMatch match, long now) {
+        int center = (match.minRating + match.maxRating) / 2;
+        MatchTicket best = null;
+        int bestSpread = Integer.MAX_VALUE;
+        for (RatingIndex.Node<MatchTicket> node : shard.ratings.nearest(center, ratingWindowMax, MAX_PLAYERS * 2, null)) {
+            int spread = Math.max(match.maxRating, node.rating) - Math.min(match.minRating, node.rating);
+            long oldest = Math.min(match.oldestEnqueuedAtMillis, node.enqueuedAtMillis);
+            if (spread < bestSpread && spread <= ratingWindow(now - oldest)) {
+                best = node.value;
+                bestSpread = spread;
+            }
+        }
+        return best;
+    }
+
+    private int ratingWindow(long waitedMillis) {
+        long widened = ratingWindowBase + ratingWindowPerSecond * Math.max(0L, waitedMillis) / 1000L;
+        return (int) Math.min(ratingWindowMax, widened);
+    }
+
+    private void fill(MatchShard shard, PendingMatch match, MatchTicket ticket) {
+        form(match, ticket, clock.millis());
+        touchAll(match);
+        if (match.tickets.size() >= MAX_PLAYERS) {
+            closeMatch(shard, match);
+            startMatch(shard, match);
+        } else {
+            openMatch(shard, match);
+        }
+    }
+
+    private void form(PendingMatch match, MatchTicket ticket, long now) {
+        match.add(ticket);
+        ticket.formingAtMillis = now;
+        formingTickets.increment();
+        queuedWait.record(Math.max(0L, now - ticket.enqueuedAtMillis), TimeUnit.MILLISECONDS);
+
+        TicketPromoted event = new TicketPromoted();
+        if (event.isEnabled()) {
+            event.ticketId = ticket.ticketId;
+            event.matchId = match.matchId;
+            event.region = ticket.region;
+            event.queued = Math.max(0L, now - ticket.enqueuedAtMillis);
+            event.commit();
+        }
+    }
+
+    private void openMatch(MatchShard shard, PendingMatch match) {
+        if (match.tickets.size() >= MAX_PLAYERS) {
             return;
         }
 
-        PendingMatch match = new PendingMatch("m_" + matchSeq.getAndIncrement());
-        for (int i = 0; i < MIN_PLAYERS; ++i) {
-            MatchTicket next = queue.pollFirst();
-            if (next != null) {
-                match.add(next);
+        if (match.openNode != null) {
+            shard.openMatches.remove(match.openNode);
+        }
+        match.open = true;
+        match.openNode = new RatingIndex.Node<>(match, (match.minRating + match.maxRating) / 2, match.oldestEnqueuedAtMillis);
+        shard.openMatches.add(match.openNode);
+    }
+
+    private void closeMatch(MatchShard shard, PendingMatch match) {
+        if (match.open) {
+            match.open = false;
+            shard.openMatches.remove(match.openNode);
+            match.openNode = null;
+        }
+    }
+
+    private ScheduledFuture<?> schedule(MatchShard shard, PendingMatch match, long delaySeconds) {
+        Runnable countdown = () -> onCountdownFinished(shard, match.matchId);
+        if (worker == scheduler) {
+            return scheduler.schedule(countdown, delaySeconds, TimeUnit.SECONDS);
+        }
+        return scheduler.schedule(() -> worker.execute(countdown), delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private Executor workerFor(ExecutionProperties execution) {
+        if (!execution.isVirtualThreads()) {
+            return scheduler;
+        }
+
+        Executor executor = VirtualThreadUtils.newThreadPerTaskExecutor("match-vt-");
+        if (executor == null) {
+            log.warn("game.execution.virtual-threads is enabled but this JVM has no virtual threads; match work stays on the scheduler");
+            return scheduler;
+        }
+        return executor;
+    }
+
+    private void onCountdownFinished(MatchShard shard, String matchId) {
+        CountdownFired event = new CountdownFired();
+        event.begin();
+        long stamp = writeLock(shard, "countdown");
+        try {
+            PendingMatch match = shard.formingMatches.get(matchId);
+            if (match != null) {
+                event.players = match.tickets.size();
+                event.started = true;
+                startMatch(shard, match);
             }
+        } finally {
+            shard.lock.unlockWrite(stamp);
         }
 
-        if (match.tickets.size() < MIN_PLAYERS) {
-            for (int i = match.tickets.size() - 1; i >= 0; --i) {
-                MatchTicket t = match.tickets.get(i);
-                t.pendingMatch = null;
-                t.status = TicketStatus.QUEUED;
-                queue.addFirst(t);
+        event.end();
+        if (event.shouldCommit()) {
+            event.matchId = matchId;
+            event.region = shard.region;
+            event.commit();
+        }
+    }
+
+    private long writeLock(MatchShard shard, String operation) {
+        long stamp = shard.lock.tryWriteLock();
+        if (stamp != 0L) {
+            return stamp;
+        }
+
+        ShardLockWait event = new ShardLockWait();
+        event.begin();
+        stamp = shard.lock.writeLock();
+        event.end();
+        if (event.shouldCommit()) {
+            event.region = shard.region;
+            event.operation = operation;
+            event.commit();
+        }
+        return stamp;
+    }
+
+    private MatchShard[] shardsFor(String region) {
+        MatchShard[] shards = shardsByRegion.get(region);
+        if (shards != null) {
+            return shards;
+        }
+
+        return shardsByRegion.computeIfAbsent(region, key -> {
+            MatchShard[] created = new MatchShard[shardCount];
+            for (int i = 0; i < created.length; ++i) {
+                created[i] = new MatchShard(key, ratingBucketWidth);
+            }
+            return created;
+        });
+    }
+
+    void rebalance() {
+        long now = clock.millis();
+        for (MatchShard[] shards : shardsByRegion.values()) {
+            consolidate(shards, now);
+        }
+        for (MatchShard[] shards : shardsByRegion.values()) {
+            for (MatchShard shard : shards) {
+                long stamp = writeLock(shard, "rebalance");
+                try {
+                    if (refillOpenMatches(shard, now)) {
+                        queueChanged(shard);
+                    }
+                    tryPromote(shard, now);
+                } finally {
+                    shard.lock.unlockWrite(stamp);
+                }
             }
+        }
+        for (Map.Entry<String, MatchShard[]> entry : shardsByRegion.entrySet()) {
+            fallBackToNeighbors(entry.getKey(), entry.getValue()[0], now);
+        }
+    }
+
+    private void consolidate(MatchShard[] shards, long now) {
+        if (shards.length < 2) {
             return;
         }
 
-        match.deadline = Instant.ofEpochMilli(now).plusSeconds(WAIT_FOR_FOURTH_SECONDS);
-        match.countdown = scheduler.schedule(() -> onCountdownFinished(match.matchId), WAIT_FOR_FOURTH_SECONDS, TimeUnit.SECONDS);
-        pendingMatch = match;
+        MatchShard target = shards[0];
+        long targetStamp = writeLock(target, "consolidate");
+        try {
+            for (int i = 1; i < shards.length; ++i) {
+                MatchShard shard = shards[i];
+                long stamp = writeLock(shard, "consolidate");
+                try {
+                    if (shard.queue.isEmpty() || shard.openMatches.size() > 0) {
+                        continue;
+                    }
+
+                    moveQueued(shard, target, now);
+                } finally {
+                    shard.lock.unlockWrite(stamp);
+                }
+            }
+        } finally {
+            target.lock.unlockWrite(targetStamp);
+        }
     }
 
-    private void onCountdownFinished(String matchId) {
-        synchronized (lock) {
-            if (pendingMatch != null && Objects.equals(pendingMatch.matchId, matchId)) {
-                startMatch(pendingMatch);
+    private void fallBackToNeighbors(String region, MatchShard home, long now) {
+        long stamp = writeLock(home, "fallback");
+        try {
+            MatchTicket oldest = home.queue.peekFirst();
+            if (oldest == null || home.openMatches.size() > 0 || !region.equals(oldest.region)
+                    || now - oldest.enqueuedAtMillis < regions.fallbackWaitMillis()) {
+                return;
+            }
+
+            for (String neighbor : regions.neighbors(region)) {
+                MatchShard[] neighborShards = shardsByRegion.get(neighbor);
+                if (neighborShards == null) {
+                    continue;
+                }
+
+                MatchShard target = neighborShards[0];
+                long targetStamp = writeLock(target, "fallback");
+                try {
+                    if (target.queue.isEmpty() && target.openMatches.size() == 0) {
+                        continue;
+                    }
+
+                    moveQueued(home, target, now);
+                    return;
+                } finally {
+                    target.lock.unlockWrite(targetStamp);
+                }
             }
+        } finally {
+            home.lock.unlockWrite(stamp);
+        }
+    }
+
+    private void moveQueued(MatchShard source, MatchShard target, long now) {
+        MatchTicket straggler;
+        while ((straggler = source.pollFirst()) != null) {
+            straggler.shard = target;
+            touch(straggler);
+            assignTicket(target, straggler, now);
         }
     }
 
-    private void startMatch(PendingMatch match) {
+    private void startMatch(MatchShard shard, PendingMatch match) {
         if (match.countdown != null) {
             match.countdown.cancel(false);
         }
+        if (match.serverRequest != null) {
+            return;
+        }
 
-        Optional<DedicatedServerRecord> serverOpt = dedicatedServers.allocateReadyServer();
-        if (serverOpt.isEmpty()) {
-            match.deadline = Instant.now().plusSeconds(1);
-            match.countdown = scheduler.schedule(() -> onCountdownFinished(match.matchId), 1, TimeUnit.SECONDS);
+        CompletableFuture<ServerSlot> request = dedicatedServers.awaitReadyServer(match.matchId,
+                () -> allocationRegions(shard.region, match));
+        match.serverRequest = request;
+        ServerSlot slot = request.getNow(null);
+        if (slot != null) {
+            launch(shard, match, slot);
             return;
         }
 
-        DedicatedServerRecord server = serverOpt.get();
+        scheduleRegionFallback(match);
+        request.thenAcceptAsync(allocated -> onServerAllocated(shard, match.matchId, allocated), worker);
+    }
+
+    private void onServerAllocated(MatchShard shard, String matchId, ServerSlot slot) {
+        long stamp = writeLock(shard, "allocated");
+        try {
+            PendingMatch match = shard.formingMatches.get(matchId);
+            if (match != null && !match.tickets.isEmpty()) {
+                launch(shard, match, slot);
+                return;
+            }
+        } finally {
+            shard.lock.unlockWrite(stamp);
+        }
+        dedicatedServers.releaseSlot(slot.server().dsId(), matchId);
+    }
+
+    private void launch(MatchShard shard, PendingMatch match, ServerSlot slot) {
+        MatchStarted event = new MatchStarted();
+        event.begin();
+        DedicatedServerRecord server = slot.server();
 
-        List<Player> players = match.players();
+        List<Player> players = match.roster;
 
         MatchTokenService.IssuedToken token = tokens.issueToken(server.dsId(), match.matchId, match.matchId);
 
@@ -240,20 +730,65 @@ public class MatchService {
                 token.payload().expiresAt()
         );
 
+        long now = clock.millis();
+        long retireAt = now + ticketRetentionMillis;
         for (MatchTicket ticket : match.tickets) {
+            formingWait.record(Math.max(0L, now - ticket.formingAtMillis), TimeUnit.MILLISECONDS);
+            matchWait.record(Math.max(0L, now - ticket.enqueuedAtMillis), TimeUnit.MILLISECONDS);
             ticket.pendingMatch = null;
             ticket.matchInfo = info;
             ticket.status = TicketStatus.MATCHED;
+            touch(ticket);
+            retiredTickets.schedule(ticket, retireAt);
         }
 
+        formingTickets.add(-match.tickets.size());
+        int launched = match.tickets.size();
         match.tickets.clear();
-        pendingMatch = null;
+        shard.formingMatches.remove(match.matchId);
+        closeMatch(shard, match);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.matchId = match.matchId;
+            event.dsId = server.dsId();
+            event.region = shard.region;
+            event.players = launched;
+            event.forming = Math.max(0L, now - match.createdAtMillis);
+            event.commit();
+        }
+    }
+
+    private List<String> allocationRegions(String region, PendingMatch match) {
+        long waited = clock.millis() - match.createdAtMillis;
+        long fallbackWait = regions.fallbackWaitMillis();
+        if (waited >= 2 * fallbackWait) {
+            return null;
+        }
+        if (waited >= fallbackWait) {
+            return preferredRegions(region);
+        }
+        return List.of(region);
+    }
 
-        if (queue.size() >= MIN_PLAYERS) {
-            tryPromote(System.currentTimeMillis());
+    private void scheduleRegionFallback(PendingMatch match) {
+        long waited = clock.millis() - match.createdAtMillis;
+        long fallbackWait = regions.fallbackWaitMillis();
+        for (long threshold = fallbackWait; threshold <= 2 * fallbackWait && threshold > 0; threshold += fallbackWait) {
+            if (threshold > waited) {
+                scheduler.schedule(dedicatedServers::dispatchWaiters, threshold - waited, TimeUnit.MILLISECONDS);
+            }
         }
     }
 
+    private List<String> preferredRegions(String region) {
+        List<String> neighbors = regions.neighbors(region);
+        List<String> preferred = new ArrayList<>(neighbors.size() + 1);
+        preferred.add(region);
+        preferred.addAll(neighbors);
+        return preferred;
+    }
+
     private MatchQueueStatus statusFor(MatchTicket ticket, long now) {
         Integer position = null;
         Integer readyIn = null;
@@ -265,30 +800,33 @@ public class MatchService {
         String startToken = null;
         Instant startTokenExpiresAt = null;
 
-        if (ticket.status == TicketStatus.QUEUED) {
+        int ticketVersion = ticket.version.get();
+        TicketStatus status = ticket.status;
+        if (status == TicketStatus.QUEUED) {
             position = queuePosition(ticket);
-        } else if (ticket.status == TicketStatus.FORMING) {
+        } else if (status == TicketStatus.FORMING) {
             PendingMatch match = ticket.pendingMatch;
             if (match != null) {
                 long millisRemaining = Math.max(0L, match.deadline.toEpochMilli() - now);
                 readyIn = (int) Math.ceil(millisRemaining / 1000.0);
-                players = match.players();
+                players = match.roster;
             }
-        } else if (ticket.status == TicketStatus.MATCHED) {
-            if (ticket.matchInfo != null) {
-                matchId = ticket.matchInfo.matchId();
-                players = ticket.matchInfo.players();
-                dedicatedServerAddress = ticket.matchInfo.dedicatedServerAddress();
-                dedicatedServerPort = ticket.matchInfo.dedicatedServerPort() > 0 ? ticket.matchInfo.dedicatedServerPort() : null;
-                dedicatedServerId = ticket.matchInfo.dedicatedServerId();
-                startToken = ticket.matchInfo.startToken();
-                startTokenExpiresAt = ticket.matchInfo.startTokenExpiresAt();
+        } else if (status == TicketStatus.MATCHED) {
+            MatchInfo info = ticket.matchInfo;
+            if (info != null) {
+                matchId = info.matchId();
+                players = info.players();
+                dedicatedServerAddress = info.dedicatedServerAddress();
+                dedicatedServerPort = info.dedicatedServerPort() > 0 ? info.dedicatedServerPort() : null;
+                dedicatedServerId = info.dedicatedServerId();
+                startToken = info.startToken();
+                startTokenExpiresAt = info.startTokenExpiresAt();
             }
         }
 
         return new MatchQueueStatus(
                 ticket.ticketId,
-                ticket.status,
+                status,
                 position,
                 readyIn,
                 WAIT_FOR_FOURTH_SECONDS,
@@ -300,29 +838,96 @@ public class MatchService {
                 dedicatedServerAddress,
                 dedicatedServerPort,
                 startToken,
-                startTokenExpiresAt
+                startTokenExpiresAt,
+                ((long) ticketVersion << 32) | (position == null ? 0L : position & 0xffffffffL)
         );
     }
 
     private int queuePosition(MatchTicket ticket) {
-        if (ticket.status != TicketStatus.QUEUED) {
-            return -1;
+        for (int attempt = 0; attempt < POSITION_READ_ATTEMPTS; ++attempt) {
+            MatchShard shard = ticket.shard;
+            long stamp = shard.lock.tryOptimisticRead();
+            if (stamp == 0L) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            int position = ticket.shard == shard ? shard.queue.position(ticket) : -1;
+            if (shard.lock.validate(stamp)) {
+                ticket.positionSnapshot = position;
+                return position;
+            }
+        }
+        return ticket.positionSnapshot;
+    }
+
+    private void touch(MatchTicket ticket) {
+        ticket.version.incrementAndGet();
+        if (!ticket.waiters.isEmpty()) {
+            worker.execute(() -> notifyWaiters(ticket));
+        }
+    }
+
+    private void touchAll(PendingMatch match) {
+        for (MatchTicket ticket : match.tickets) {
+            touch(ticket);
+        }
+    }
+
+    private void queueChanged(MatchShard shard) {
+        if (!shard.positionWatchers.isEmpty() && shard.positionFlushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> flushPositionWatchers(shard), POSITION_NOTIFY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushPositionWatchers(MatchShard shard) {
+        shard.positionFlushScheduled.set(false);
+        for (MatchTicket ticket : shard.positionWatchers) {
+            notifyWaiters(ticket);
+            if (ticket.waiters.isEmpty() || ticket.status != TicketStatus.QUEUED || ticket.shard != shard) {
+                shard.positionWatchers.remove(ticket);
+            }
+        }
+    }
+
+    private void notifyWaiters(MatchTicket ticket) {
+        if (ticket.waiters.isEmpty()) {
+            return;
         }
 
-        int pos = 1;
-        for (MatchTicket q : queue) {
-            if (q == ticket) {
-                return pos;
+        MatchQueueStatus current = statusFor(ticket, clock.millis());
+        for (ChangeWaiter waiter : ticket.waiters) {
+            if (waiter.future().isDone()) {
+                ticket.waiters.remove(waiter);
+            } else if (waiter.version() != current.version()) {
+                ticket.waiters.remove(waiter);
+                waiter.future().complete(current);
             }
-            pos++;
         }
+    }
 
-        return -1;
+    private boolean isActive(MatchTicket ticket) {
+        TicketStatus status = ticket.status;
+        return status != TicketStatus.MATCHED && status != TicketStatus.CANCELLED;
     }
 
     private void removeTicket(MatchTicket ticket) {
-        ticketsById.remove(ticket.ticketId);
-        ticketsByPlayer.remove(ticket.player.playerId());
+        ticketsById.remove(ticket.ticketId, ticket);
+        ticketsByPlayer.remove(ticket.player.playerId(), ticket);
+    }
+
+    void reclaimRetiredTickets() {
+        retiredTickets.advance(clock.millis(), this::reclaim);
+    }
+
+    private long reclaim(MatchTicket ticket) {
+        removeTicket(ticket);
+        MatchQueueStatus last = statusFor(ticket, clock.millis());
+        ChangeWaiter waiter;
+        while ((waiter = ticket.waiters.poll()) != null) {
+            waiter.future().complete(last);
+        }
+        return 0L;
     }
 
     @PreDestroy
@@ -330,47 +935,125 @@ public class MatchService {
         scheduler.shutdownNow();
     }
 
-    private static class MatchTicket {
+    private static class MatchShard {
+        private final String region;
+        private final StampedLock lock = new StampedLock();
+        private final IndexedQueue<MatchTicket> queue = new IndexedQueue<>();
+        private final RatingIndex<MatchTicket> ratings;
+        private final Map<String, PendingMatch> formingMatches = new LinkedHashMap<>();
+        private final RatingIndex<PendingMatch> openMatches;
+        private final Set<MatchTicket> positionWatchers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean positionFlushScheduled = new AtomicBoolean();
+
+        private MatchShard(String region, int ratingBucketWidth) {
+            this.region = region;
+            this.ratings = new RatingIndex<>(ratingBucketWidth);
+            this.openMatches = new RatingIndex<>(ratingBucketWidth);
+        }
+
+        private void enqueue(MatchTicket ticket) {
+            queue.addLast(ticket);
+            ratings.add(ticket.ratingNode);
+            ticket.positionSnapshot = queue.size();
+        }
+
+        private void requeueFirst(MatchTicket ticket) {
+            queue.addFirst(ticket);
+            ratings.add(ticket.ratingNode);
+            ticket.positionSnapshot = 1;
+        }
+
+        private void dequeue(MatchTicket ticket) {
+            queue.remove(ticket);
+            ratings.remove(ticket.ratingNode);
+        }
+
+        private MatchTicket pollFirst() {
+            MatchTicket ticket = queue.pollFirst();
+            if (ticket != null) {
+                ratings.remove(ticket.ratingNode);
+            }
+            return ticket;
+        }
+    }
+
+    private record ChangeWaiter(long version, CompletableFuture<MatchQueueStatus> future) {
+    }
+
+    private static class MatchTicket extends IndexedQueue.Node {
         private final String ticketId;
         private final Player player;
-        private TicketStatus status = TicketStatus.QUEUED;
-        private PendingMatch pendingMatch;
-        private MatchInfo matchInfo;
+        private volatile TicketStatus status = TicketStatus.QUEUED;
+        private volatile MatchShard shard;
+        private volatile PendingMatch pendingMatch;
+        private volatile MatchInfo matchInfo;
+        private final AtomicInteger version = new AtomicInteger();
+        private volatile int positionSnapshot = -1;
+        private final Queue<ChangeWaiter> waiters = new ConcurrentLinkedQueue<>();
         private final String address;
+        private final String region;
+        private final long enqueuedAtMillis;
+        private final RatingIndex.Node<MatchTicket> ratingNode;
+        private volatile long formingAtMillis;
 
-        private MatchTicket(String ticketId, Player player, String address) {
+        private MatchTicket(String ticketId, Player player, String address, String region, int rating,
+                            long enqueuedAtMillis) {
             this.ticketId = ticketId;
             this.player = player;
             this.address = (address == null || address.isBlank()) ? null : address;
+            this.region = region;
+            this.enqueuedAtMillis = enqueuedAtMillis;
+            this.ratingNode = new RatingIndex.Node<>(this, rating, enqueuedAtMillis);
         }
     }
 
     private static class PendingMatch {
         private final String matchId;
+        private final long createdAtMillis;
         private final List<MatchTicket> tickets = new ArrayList<>();
+        private volatile List<Player> roster = List.of();
         private ScheduledFuture<?> countdown;
-        private Instant deadline = java.time.Instant.now();
+        private CompletableFuture<ServerSlot> serverRequest;
+        private volatile Instant deadline;
+        private boolean open;
+        private RatingIndex.Node<PendingMatch> openNode;
+        private int minRating;
+        private int maxRating;
+        private long oldestEnqueuedAtMillis;
 
-        private PendingMatch(String matchId) {
+        private PendingMatch(String matchId, long createdAtMillis) {
             this.matchId = matchId;
+            this.createdAtMillis = createdAtMillis;
+            this.deadline = Instant.ofEpochMilli(createdAtMillis);
         }
 
         private void add(MatchTicket ticket) {
             tickets.add(ticket);
             ticket.pendingMatch = this;
             ticket.status = TicketStatus.FORMING;
+            refresh();
         }
 
         private void remove(MatchTicket ticket) {
             tickets.remove(ticket);
+            refresh();
         }
 
-        private List<Player> players() {
+        private void refresh() {
             List<Player> list = new ArrayList<>(tickets.size());
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            long oldest = Long.MAX_VALUE;
             for (MatchTicket ticket : tickets) {
                 list.add(ticket.player);
+                min = Math.min(min, ticket.ratingNode.rating);
+                max = Math.max(max, ticket.ratingNode.rating);
+                oldest = Math.min(oldest, ticket.enqueuedAtMillis);
             }
-            return list;
+            minRating = min;
+            maxRating = max;
+            oldestEnqueuedAtMillis = oldest;
+            roster = List.copyOf(list);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,49 +1,168 @@
 package com.BombTagNet.Backend.service;
 
+import com.BombTagNet.Backend.common.TokenSigningAlgorithm;
 import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.service.MatchFlightEvents.TokenVerified;
+import com.BombTagNet.Backend.service.StartTokenKeyRing.SigningKey;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Base64.Encoder;
 import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class MatchTokenService {
-    public record TokenPayload(String version, String dsId, String roomId, String matchId, Instant expiresAt) {
+    public record TokenPayload(String version, String dsId, String roomId, String matchId, Instant expiresAt,
+                               long tokenId) {
     }
 
     public record IssuedToken(String token, TokenPayload payload) {
     }
 
+    public record PublicSigningKey(String kid, String kty, String crv, String alg, String x, Instant activatesAt,
+                                   Instant expiresAt) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(MatchTokenService.class);
     private static final String VERSION = "v1";
+    private static final String VERSION_2 = "v2";
+    private static final String VERSION_2_PREFIX = VERSION_2 + ".";
+    private static final String VERSION_3 = "v3";
+    private static final String VERSION_3_PREFIX = VERSION_3 + ".";
+    private static final byte LAYOUT_2 = 2;
+    private static final byte LAYOUT_3 = 3;
+    private static final int MAC_LENGTH = 32;
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int ED25519_KEY_LENGTH = 32;
+    private static final int MAX_ID_BYTES = 255;
+    private static final int MAX_KID_BYTES = 32;
+    private static final int MIN_FIELD_BYTES = Long.BYTES + 3;
+    private static final int MAX_TOKEN_BYTES = 2 + MAX_KID_BYTES + MIN_FIELD_BYTES + 3 * MAX_ID_BYTES + SIGNATURE_LENGTH;
+    private static final long KEY_RETENTION_SKEW_SECONDS = 60;
+    private static final char[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final int[] BASE64_URL_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, -1);
+        for (int i = 0; i < BASE64_URL.length; ++i) {
+            BASE64_URL_VALUES[BASE64_URL[i]] = i;
+        }
+    }
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final String secret;
     private final Duration ttl;
+    private final SecretKeySpec macKey;
+    private final TokenSigningAlgorithm signing;
+    private final StartTokenKeyRing signingKeys;
+    private final long publicKeyCacheSeconds;
+    private final ScratchPool<TokenScratch> scratch = new ScratchPool<>(2 * Runtime.getRuntime().availableProcessors(), this::newScratch);
+    private final Counter issued;
+    private final Counter verifiedValid;
+    private final Counter verifiedInvalid;
 
-    public MatchTokenService(MatchProperties properties) {
+    public MatchTokenService(MatchProperties properties, MeterRegistry meters) {
         this.secret = properties.getTokenSecret();
         this.ttl = Duration.ofSeconds(Math.max(1L, properties.getTokenTtlSeconds()));
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalStateException("game.match.token-secret is required");
+        }
+        this.macKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.signing = properties.getTokenSigning() == null ? TokenSigningAlgorithm.HMAC_SHA256 : properties.getTokenSigning();
+        if (signing == TokenSigningAlgorithm.ED25519) {
+            log.warn("game.match.token-signing=ED25519 keeps its signing keys in memory; run a single backend instance or dedicated servers will reject tokens signed by its peers");
+        }
+
+        Duration rotation = Duration.ofSeconds(Math.max(60L, properties.getSigningKeyRotationSeconds()));
+        this.signingKeys = new StartTokenKeyRing(rotation, ttl.plusSeconds(KEY_RETENTION_SKEW_SECONDS));
+        this.publicKeyCacheSeconds = Math.max(1L, Math.min(properties.getPublicKeyCacheSeconds(), rotation.getSeconds() / 2));
+
+        this.issued = Counter.builder("bombtag.token.issued").tag("signing", signing.name().toLowerCase()).register(meters);
+        this.verifiedValid = Counter.builder("bombtag.token.verifications").tag("result", "valid").register(meters);
+        this.verifiedInvalid = Counter.builder("bombtag.token.verifications").tag("result", "invalid").register(meters);
     }
 
     public IssuedToken issueToken(String dsId, String roomId, String matchId) {
-        Instant expiresAt = Instant.now().plus(ttl);
-        String token = encode(dsId, roomId, matchId, expiresAt);
-        TokenPayload payload = new TokenPayload(VERSION, dsId, roomId, matchId, expiresAt);
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().plus(ttl).getEpochSecond());
+        boolean asymmetric = signing == TokenSigningAlgorithm.ED25519;
+        TokenScratch s = scratch.acquire();
+        String token;
+        long tokenId;
+        try {
+            int length = asymmetric ? writeV3(s, dsId, roomId, matchId, expiresAt) : writeV2(s, dsId, roomId, matchId, expiresAt);
+            token = toToken(s, asymmetric ? VERSION_3_PREFIX : VERSION_2_PREFIX, length);
+            tokenId = readLong(s.buffer, length - (asymmetric ? SIGNATURE_LENGTH : MAC_LENGTH));
+        } finally {
+            scratch.release(s);
+        }
+        TokenPayload payload = new TokenPayload(asymmetric ? VERSION_3 : VERSION_2, dsId, roomId, matchId, expiresAt, tokenId);
+        issued.increment();
         return new IssuedToken(token, payload);
     }
 
+    public List<PublicSigningKey> publicSigningKeys() {
+        Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return signingKeys.published(Instant.now()).stream()
+                .map(key -> {
+                    byte[] encoded = key.publicKey().getEncoded();
+                    byte[] raw = Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length);
+                    return new PublicSigningKey(key.kid(), "OKP", "Ed25519", "EdDSA", encoder.encodeToString(raw),
+                            key.activatesAt(), signingKeys.expiresAt(key));
+                })
+                .toList();
+    }
+
+    public long publicKeyCacheSeconds() {
+        return publicKeyCacheSeconds;
+    }
+
     public Optional<TokenPayload> verify(String token) {
+        TokenVerified event = new TokenVerified();
+        event.begin();
+        Optional<TokenPayload> payload = verifyToken(token);
+        (payload.isPresent() ? verifiedValid : verifiedInvalid).increment();
+        event.end();
+        if (event.shouldCommit()) {
+            event.valid = payload.isPresent();
+            payload.ifPresent(verified -> {
+                event.matchId = verified.matchId();
+                event.dsId = verified.dsId();
+            });
+            event.commit();
+        }
+        return payload;
+    }
+
+    private Optional<TokenPayload> verifyToken(String token) {
         if (token == null || token.isBlank()) {
             return Optional.empty();
         }
+        if (token.startsWith(VERSION_3_PREFIX)) {
+            return verifyV3(token);
+        }
+        if (token.startsWith(VERSION_2_PREFIX)) {
+            return verifyV2(token);
+        }
 
         String[] segments = token.split("\\.");
         if (segments.length != 3) {
@@ -81,13 +200,14 @@ public class MatchTokenService {
             }
 
             Instant expiresAt = Instant.parse(exp);
-            return Optional.of(new TokenPayload(header, dsId, roomId, matchId, expiresAt));
+            long tokenId = Long.parseUnsignedLong(signature.substring(0, 16), 16);
+            return Optional.of(new TokenPayload(header, dsId, roomId, matchId, expiresAt, tokenId));
         } catch (Exception ex) {
             return Optional.empty();
         }
     }
 
-    private String encode(String dsId, String roomId, String matchId, Instant expiresAt) {
+    String encodeV1(String dsId, String roomId, String matchId, Instant expiresAt) {
         try {
             ObjectNode node = mapper.createObjectNode();
             node.put("dsId", dsId);
@@ -105,6 +225,306 @@ public class MatchTokenService {
         }
     }
 
+    String encodeV2(String dsId, String roomId, String matchId, Instant expiresAt) {
+        TokenScratch s = scratch.acquire();
+        try {
+            return toToken(s, VERSION_2_PREFIX, writeV2(s, dsId, roomId, matchId, expiresAt));
+        } finally {
+            scratch.release(s);
+        }
+    }
+
+    String encodeV3(String dsId, String roomId, String matchId, Instant expiresAt) {
+        TokenScratch s = scratch.acquire();
+        try {
+            return toToken(s, VERSION_3_PREFIX, writeV3(s, dsId, roomId, matchId, expiresAt));
+        } finally {
+            scratch.release(s);
+        }
+    }
+
+    private int writeV2(TokenScratch s, String dsId, String roomId, String matchId, Instant expiresAt) {
+        byte[] buffer = s.buffer;
+        buffer[0] = LAYOUT_2;
+        int length = putFields(buffer, 1, expiresAt, dsId, roomId, matchId);
+
+        try {
+            s.mac.update(buffer, 0, length);
+            s.mac.doFinal(buffer, length);
+        } catch (ShortBufferException ex) {
+            throw new IllegalStateException("Failed to encode match token", ex);
+        }
+        return length + MAC_LENGTH;
+    }
+
+    private int writeV3(TokenScratch s, String dsId, String roomId, String matchId, Instant expiresAt) {
+        SigningKey key = signingKeys.current(Instant.now());
+        byte[] buffer = s.buffer;
+        buffer[0] = LAYOUT_3;
+        int length = putKid(buffer, 1, key.kid());
+        length = putFields(buffer, length, expiresAt, dsId, roomId, matchId);
+
+        try {
+            s.signature.initSign(key.privateKey());
+            s.signature.update(buffer, 0, length);
+            length += s.signature.sign(buffer, length, SIGNATURE_LENGTH);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Failed to sign match token", ex);
+        }
+        return length;
+    }
+
+    private Optional<TokenPayload> verifyV2(String token) {
+        TokenScratch s = scratch.acquire();
+        try {
+            return verifyV2(token, s);
+        } finally {
+            scratch.release(s);
+        }
+    }
+
+    private Optional<TokenPayload> verifyV2(String token, TokenScratch s) {
+        byte[] buffer = s.buffer;
+        int length = decodeBase64Url(token, VERSION_2_PREFIX.length(), buffer);
+        if (length < 1 + MIN_FIELD_BYTES + MAC_LENGTH || buffer[0] != LAYOUT_2) {
+            return Optional.empty();
+        }
+
+        int bodyLength = length - MAC_LENGTH;
+        try {
+            s.mac.update(buffer, 0, bodyLength);
+            s.mac.doFinal(s.expectedMac, 0);
+        } catch (ShortBufferException ex) {
+            return Optional.empty();
+        }
+
+        int diff = 0;
+        for (int i = 0; i < MAC_LENGTH; ++i) {
+            diff |= s.expectedMac[i] ^ buffer[bodyLength + i];
+        }
+        if (diff != 0) {
+            return Optional.empty();
+        }
+
+        return readFields(buffer, 1, bodyLength, VERSION_2, readLong(buffer, bodyLength));
+    }
+
+    private Optional<TokenPayload> verifyV3(String token) {
+        TokenScratch s = scratch.acquire();
+        try {
+            return verifyV3(token, s);
+        } finally {
+            scratch.release(s);
+        }
+    }
+
+    private Optional<TokenPayload> verifyV3(String token, TokenScratch s) {
+        byte[] buffer = s.buffer;
+        int length = decodeBase64Url(token, VERSION_3_PREFIX.length(), buffer);
+        if (length < 2 + MIN_FIELD_BYTES + SIGNATURE_LENGTH || buffer[0] != LAYOUT_3) {
+            return Optional.empty();
+        }
+
+        int kidLength = buffer[1] & 0xff;
+        int bodyLength = length - SIGNATURE_LENGTH;
+        if (kidLength == 0 || kidLength > MAX_KID_BYTES || 2 + kidLength + MIN_FIELD_BYTES > bodyLength) {
+            return Optional.empty();
+        }
+
+        String kid = new String(buffer, 2, kidLength, StandardCharsets.US_ASCII);
+        Optional<PublicKey> key = signingKeys.find(kid, Instant.now());
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            s.signature.initVerify(key.get());
+            s.signature.update(buffer, 0, bodyLength);
+            if (!s.signature.verify(buffer, bodyLength, SIGNATURE_LENGTH)) {
+                return Optional.empty();
+            }
+        } catch (GeneralSecurityException ex) {
+            return Optional.empty();
+        }
+
+        return readFields(buffer, 2 + kidLength, bodyLength, VERSION_3, readLong(buffer, bodyLength));
+    }
+
+    private int putFields(byte[] buffer, int position, Instant expiresAt, String dsId, String roomId, String matchId) {
+        long exp = expiresAt.getEpochSecond();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (exp >>> shift);
+        }
+        position = putId(buffer, position, dsId);
+        position = putId(buffer, position, roomId);
+        return putId(buffer, position, matchId);
+    }
+
+    private Optional<TokenPayload> readFields(byte[] buffer, int position, int end, String version, long tokenId) {
+        long exp = readLong(buffer, position);
+        position += Long.BYTES;
+
+        String[] ids = new String[3];
+        for (int i = 0; i < ids.length; ++i) {
+            if (position >= end) {
+                return Optional.empty();
+            }
+            int idLength = buffer[position++] & 0xff;
+            if (idLength == 0 || position + idLength > end) {
+                return Optional.empty();
+            }
+            ids[i] = new String(buffer, position, idLength, StandardCharsets.UTF_8);
+            position += idLength;
+        }
+        if (position != end) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new TokenPayload(version, ids[0], ids[1], ids[2], Instant.ofEpochSecond(exp), tokenId));
+    }
+
+    private static long readLong(byte[] buffer, int position) {
+        long value = 0L;
+        for (int i = 0; i < Long.BYTES; ++i) {
+            value = (value << 8) | (buffer[position + i] & 0xff);
+        }
+        return value;
+    }
+
+    private int putKid(byte[] buffer, int position, String kid) {
+        buffer[position++] = (byte) kid.length();
+        for (int i = 0; i < kid.length(); ++i) {
+            buffer[position++] = (byte) kid.charAt(i);
+        }
+        return position;
+    }
+
+    private String toToken(TokenScratch s, String prefix, int length) {
+        char[] chars = s.chars;
+        int written = 0;
+        for (int i = 0; i < prefix.length(); ++i) {
+            chars[written++] = prefix.charAt(i);
+        }
+        written = encodeBase64Url(s.buffer, length, chars, written);
+        return new String(chars, 0, written);
+    }
+
+    private int putId(byte[] buffer, int position, String id) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalStateException("Failed to encode match token");
+        }
+
+        int start = position++;
+        for (int i = 0; i < id.length(); ++i) {
+            char c = id.charAt(i);
+            if (c >= 0x80) {
+                return putUtf8Id(buffer, start, id);
+            }
+            if (position - start > MAX_ID_BYTES) {
+                throw new IllegalStateException("Failed to encode match token");
+            }
+            buffer[position++] = (byte) c;
+        }
+        buffer[start] = (byte) (position - start - 1);
+        return position;
+    }
+
+    private int putUtf8Id(byte[] buffer, int start, String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_ID_BYTES) {
+            throw new IllegalStateException("Failed to encode match token");
+        }
+        buffer[start] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, buffer, start + 1, bytes.length);
+        return start + 1 + bytes.length;
+    }
+
+    private static int encodeBase64Url(byte[] source, int length, char[] target, int position) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8 | (source[i + 2] & 0xff);
+            target[position++] = BASE64_URL[bits >>> 18];
+            target[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            target[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            target[position++] = BASE64_URL[bits & 0x3f];
+        }
+
+        int remaining = length - i;
+        if (remaining > 0) {
+            int bits = (source[i] & 0xff) << 16 | (remaining == 2 ? (source[i + 1] & 0xff) << 8 : 0);
+            target[position++] = BASE64_URL[bits >>> 18];
+            target[position++] = BASE64_URL[(bits >>> 12) & 0x3f];
+            if (remaining == 2) {
+                target[position++] = BASE64_URL[(bits >>> 6) & 0x3f];
+            }
+        }
+        return position;
+    }
+
+    private static int decodeBase64Url(String source, int offset, byte[] target) {
+        int chars = source.length() - offset;
+        if (chars % 4 == 1 || chars / 4 * 3 + 2 > target.length) {
+            return -1;
+        }
+
+        int length = 0;
+        int bits = 0;
+        int pending = 0;
+        for (int i = offset; i < source.length(); ++i) {
+            char c = source.charAt(i);
+            int value = c < BASE64_URL_VALUES.length ? BASE64_URL_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+
+            bits = bits << 6 | value;
+            if (++pending == 4) {
+                target[length++] = (byte) (bits >>> 16);
+                target[length++] = (byte) (bits >>> 8);
+                target[length++] = (byte) bits;
+                bits = 0;
+                pending = 0;
+            }
+        }
+
+        if (pending == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            target[length++] = (byte) (bits >>> 10);
+            target[length++] = (byte) (bits >>> 2);
+        } else if (pending == 2) {
+            if ((bits & 0xf) != 0) {
+                return -1;
+            }
+            target[length++] = (byte) (bits >>> 4);
+        }
+        return length;
+    }
+
+    private TokenScratch newScratch() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(macKey);
+            return new TokenScratch(mac, Signature.getInstance("Ed25519"));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Token signing algorithms not available", ex);
+        }
+    }
+
+    private static final class TokenScratch {
+        private final Mac mac;
+        private final Signature signature;
+        private final byte[] buffer = new byte[MAX_TOKEN_BYTES];
+        private final byte[] expectedMac = new byte[MAC_LENGTH];
+        private final char[] chars = new char[VERSION_3_PREFIX.length() + (MAX_TOKEN_BYTES + 2) / 3 * 4];
+
+        private TokenScratch(Mac mac, Signature signature) {
+            this.mac = mac;
+            this.signature = signature;
+        }
+    }
+
     private String sign(String message) {
         try {
             MessageDigest md5 = MessageDigest.getInstance("MD5");
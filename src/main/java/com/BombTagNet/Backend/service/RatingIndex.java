@@ -0,0 +1,171 @@
+package com.BombTagNet.Backend.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongToIntFunction;
+
+final class RatingIndex<T> {
+    static final class Node<T> {
+        final T value;
+        final int rating;
+        final long enqueuedAtMillis;
+        private Node<T> prev;
+        private Node<T> next;
+        private boolean linked;
+
+        Node(T value, int rating, long enqueuedAtMillis) {
+            this.value = value;
+            this.rating = clamp(rating);
+            this.enqueuedAtMillis = enqueuedAtMillis;
+        }
+    }
+
+    static final int MAX_RATING = 10000;
+    private static final int CANDIDATE_LIMIT = 8;
+    private static final Comparator<Node<?>> BY_RATING = Comparator.comparingInt(node -> node.rating);
+
+    private final int bucketWidth;
+    private final Node<T>[] heads;
+    private final Node<T>[] tails;
+    private final BitSet occupied;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    RatingIndex(int bucketWidth) {
+        this.bucketWidth = Math.max(1, bucketWidth);
+        int buckets = MAX_RATING / this.bucketWidth + 1;
+        this.heads = (Node<T>[]) new Node<?>[buckets];
+        this.tails = (Node<T>[]) new Node<?>[buckets];
+        this.occupied = new BitSet(buckets);
+    }
+
+    static int clamp(int rating) {
+        return Math.max(0, Math.min(MAX_RATING, rating));
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(Node<T> node) {
+        if (node.linked) {
+            return;
+        }
+
+        int bucket = bucketOf(node.rating);
+        Node<T> tail = tails[bucket];
+        node.prev = tail;
+        node.next = null;
+        if (tail == null) {
+            heads[bucket] = node;
+            occupied.set(bucket);
+        } else {
+            tail.next = node;
+        }
+        tails[bucket] = node;
+        node.linked = true;
+        size++;
+    }
+
+    boolean remove(Node<T> node) {
+        if (!node.linked) {
+            return false;
+        }
+
+        int bucket = bucketOf(node.rating);
+        if (node.prev == null) {
+            heads[bucket] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tails[bucket] = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        if (heads[bucket] == null) {
+            occupied.clear(bucket);
+        }
+
+        node.prev = null;
+        node.next = null;
+        node.linked = false;
+        size--;
+        return true;
+    }
+
+    List<Node<T>> nearest(int rating, int radius, int limit, Node<T> exclude) {
+        List<Node<T>> found = new ArrayList<>(limit + 1);
+        int center = bucketOf(clamp(rating));
+        int minBucket = bucketOf(clamp(rating - radius));
+        int maxBucket = bucketOf(clamp(rating + radius));
+
+        collect(center, rating, radius, limit, exclude, found);
+        int below = center > 0 ? occupied.previousSetBit(center - 1) : -1;
+        int above = occupied.nextSetBit(center + 1);
+        while (found.size() < limit) {
+            boolean belowInRange = below >= minBucket;
+            boolean aboveInRange = above >= 0 && above <= maxBucket;
+            if (belowInRange && (!aboveInRange || center - below <= above - center)) {
+                collect(below, rating, radius, limit, exclude, found);
+                below = below > 0 ? occupied.previousSetBit(below - 1) : -1;
+            } else if (aboveInRange) {
+                collect(above, rating, radius, limit, exclude, found);
+                above = occupied.nextSetBit(above + 1);
+            } else {
+                break;
+            }
+        }
+        return found;
+    }
+
+    List<Node<T>> findGroup(Node<T> anchor, int groupSize, int maxWindow, long now, LongToIntFunction windowForWait) {
+        if (!anchor.linked || size < groupSize) {
+            return null;
+        }
+
+        List<Node<T>> candidates = nearest(anchor.rating, maxWindow, CANDIDATE_LIMIT, anchor);
+        if (candidates.size() + 1 < groupSize) {
+            return null;
+        }
+
+        candidates.add(anchor);
+        candidates.sort(BY_RATING);
+        int at = candidates.indexOf(anchor);
+
+        int best = -1;
+        int bestSpread = Integer.MAX_VALUE;
+        int last = Math.min(at, candidates.size() - groupSize);
+        for (int start = Math.max(0, at - groupSize + 1); start <= last; ++start) {
+            int spread = candidates.get(start + groupSize - 1).rating - candidates.get(start).rating;
+            if (spread >= bestSpread) {
+                continue;
+            }
+
+            long oldest = Long.MAX_VALUE;
+            for (int i = start; i < start + groupSize; ++i) {
+                oldest = Math.min(oldest, candidates.get(i).enqueuedAtMillis);
+            }
+            if (spread <= windowForWait.applyAsInt(now - oldest)) {
+                best = start;
+                bestSpread = spread;
+            }
+        }
+
+        return best < 0 ? null : new ArrayList<>(candidates.subList(best, best + groupSize));
+    }
+
+    private void collect(int bucket, int rating, int radius, int limit, Node<T> exclude, List<Node<T>> found) {
+        for (Node<T> node = heads[bucket]; node != null && found.size() < limit; node = node.next) {
+            if (node != exclude && Math.abs(node.rating - rating) <= radius) {
+                found.add(node);
+            }
+        }
+    }
+
+    private int bucketOf(int rating) {
+        return rating / bucketWidth;
+    }
+}
@@ -0,0 +1,198 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.RegionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+public class RegionResolver {
+    private static final Logger log = LoggerFactory.getLogger(RegionResolver.class);
+
+    private final String defaultRegion;
+    private final Map<String, List<String>> neighbors;
+    private final long fallbackWaitMillis;
+    private final PrefixNode ipv4 = new PrefixNode();
+    private final PrefixNode ipv6 = new PrefixNode();
+
+    public RegionResolver(RegionProperties properties) {
+        this.defaultRegion = normalizeTag(properties.getDefaultRegion(), "default");
+        this.neighbors = properties.getNeighbors() == null ? Map.of() : properties.getNeighbors().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(
+                        e -> normalizeTag(e.getKey(), defaultRegion),
+                        e -> e.getValue().stream().map(r -> normalizeTag(r, defaultRegion)).distinct().toList()));
+        this.fallbackWaitMillis = Math.max(0L, properties.getFallbackWaitSeconds()) * 1000L;
+        if (properties.getCidrFile() != null && !properties.getCidrFile().isBlank()) {
+            load(Path.of(properties.getCidrFile().trim()));
+        }
+    }
+
+    public String resolve(String address) {
+        byte[] bytes = parseAddress(address);
+        if (bytes == null) {
+            return defaultRegion;
+        }
+
+        PrefixNode node = bytes.length == 4 ? ipv4 : ipv6;
+        String match = node.region;
+        for (int bit = 0; bit < bytes.length * 8 && node != null; ++bit) {
+            node = node.children[bitAt(bytes, bit)];
+            if (node != null && node.region != null) {
+                match = node.region;
+            }
+        }
+        return match == null ? defaultRegion : match;
+    }
+
+    public String normalizeRegion(String region) {
+        return normalizeTag(region, defaultRegion);
+    }
+
+    public List<String> neighbors(String region) {
+        return neighbors.getOrDefault(region, List.of());
+    }
+
+    public long fallbackWaitMillis() {
+        return fallbackWaitMillis;
+    }
+
+    private void load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            log.warn("Failed to read region CIDR file {}", file, ex);
+            return;
+        }
+
+        int loaded = 0;
+        for (String raw : lines) {
+            String line = raw.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split("[\\s,]+");
+            if (parts.length < 2 || !insert(parts[0], normalizeTag(parts[1], defaultRegion))) {
+                log.warn("Skipping invalid region CIDR line '{}'", line);
+                continue;
+            }
+            loaded++;
+        }
+        log.info("Loaded {} region CIDR prefixes from {}", loaded, file);
+    }
+
+    private boolean insert(String cidr, String region) {
+        int slash = cidr.indexOf('/');
+        byte[] bytes = parseAddress(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (bytes == null) {
+            return false;
+        }
+
+        int prefixLength;
+        try {
+            prefixLength = slash < 0 ? bytes.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (prefixLength < 0 || prefixLength > bytes.length * 8) {
+            return false;
+        }
+
+        PrefixNode node = bytes.length == 4 ? ipv4 : ipv6;
+        for (int bit = 0; bit < prefixLength; ++bit) {
+            int b = bitAt(bytes, bit);
+            if (node.children[b] == null) {
+                node.children[b] = new PrefixNode();
+            }
+            node = node.children[b];
+        }
+        node.region = region;
+        return true;
+    }
+
+    private static int bitAt(byte[] bytes, int bit) {
+        return (bytes[bit >>> 3] >>> (7 - (bit & 7))) & 1;
+    }
+
+    private static byte[] parseAddress(String address) {
+        if (address == null || address.isBlank()) {
+            return null;
+        }
+
+        String trimmed = address.trim();
+        if (trimmed.indexOf(':') >= 0) {
+            if (!isIpv6Literal(trimmed)) {
+                return null;
+            }
+            try {
+                byte[] bytes = InetAddress.getByName(trimmed).getAddress();
+                return bytes.length == 16 && isMappedIpv4(bytes) ? Arrays.copyOfRange(bytes, 12, 16) : bytes;
+            } catch (UnknownHostException | SecurityException ex) {
+                return null;
+            }
+        }
+
+        String[] octets = trimmed.split("\\.");
+        if (octets.length != 4) {
+            return null;
+        }
+
+        byte[] bytes = new byte[4];
+        for (int i = 0; i < 4; ++i) {
+            try {
+                int value = Integer.parseInt(octets[i]);
+                if (value < 0 || value > 255) {
+                    return null;
+                }
+                bytes[i] = (byte) value;
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isIpv6Literal(String address) {
+        for (int i = 0; i < address.length(); ++i) {
+            char c = address.charAt(i);
+            if (c != ':' && c != '.' && Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMappedIpv4(byte[] bytes) {
+        for (int i = 0; i < 10; ++i) {
+            if (bytes[i] != 0) {
+                return false;
+            }
+        }
+        return bytes[10] == (byte) 0xff && bytes[11] == (byte) 0xff;
+    }
+
+    private static String normalizeTag(String region, String fallback) {
+        if (region == null || region.isBlank()) {
+            return fallback;
+        }
+        return region.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class PrefixNode {
+        private final PrefixNode[] children = new PrefixNode[2];
+        private String region;
+    }
+}
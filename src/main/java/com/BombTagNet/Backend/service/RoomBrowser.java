@@ -0,0 +1,152 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.RoomListing;
+import com.BombTagNet.Backend.dto.RoomDto.RoomPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RoomBrowser {
+    public record RoomFilter(RoomStatus status, boolean freeSlots, boolean noPassword) {
+        private boolean matches(RoomListing listing) {
+            return (status == null || listing.status() == status)
+                    && (!freeSlots || listing.currentPlayers() < listing.maxPlayers())
+                    && (!noPassword || !listing.hasPassword());
+        }
+    }
+
+    private record PageKey(RoomFilter filter, long after, int limit) {
+    }
+
+    private record CachedPage(long after, long scannedTo, byte[] body) {
+        private boolean covers(long key) {
+            return key > after && key <= scannedTo;
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CACHED_PAGES = 1024;
+    private static final int CURSOR_RADIX = 36;
+
+    private final ObjectMapper mapper;
+    private final AtomicLong seq = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Room, Long> keys = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, RoomListing> listings = new ConcurrentSkipListMap<>();
+    private final Map<PageKey, CachedPage> pages = new ConcurrentHashMap<>();
+
+    public RoomBrowser(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    void add(Room room) {
+        long key = seq.incrementAndGet();
+        keys.compute(room, (r, previous) -> {
+            if (previous != null) {
+                listings.remove(previous);
+            }
+            listings.put(key, toListing(r));
+            return key;
+        });
+        invalidate(key);
+    }
+
+    void update(Room room) {
+        Long key = keys.computeIfPresent(room, (r, k) -> {
+            listings.put(k, toListing(r));
+            return k;
+        });
+        if (key != null) {
+            invalidate(key);
+        }
+    }
+
+    void remove(Room room) {
+        Long key = keys.get(room);
+        if (key != null && keys.remove(room, key)) {
+            listings.remove(key);
+            invalidate(key);
+        }
+    }
+
+    public byte[] page(RoomFilter filter, String cursor, int limit) {
+        PageKey pageKey = new PageKey(filter, parseCursor(cursor), Math.max(1, Math.min(MAX_PAGE_SIZE, limit)));
+        CachedPage cached = pages.get(pageKey);
+        if (cached != null) {
+            return cached.body();
+        }
+
+        long version = changes.get();
+        CachedPage built = build(pageKey);
+        if (pages.size() >= MAX_CACHED_PAGES) {
+            pages.clear();
+        }
+        pages.put(pageKey, built);
+        if (changes.get() != version) {
+            pages.remove(pageKey, built);
+        }
+        return built.body();
+    }
+
+    private CachedPage build(PageKey pageKey) {
+        List<RoomListing> page = new ArrayList<>(pageKey.limit());
+        long last = pageKey.after();
+        long scannedTo = Long.MAX_VALUE;
+        String nextCursor = null;
+        for (Map.Entry<Long, RoomListing> entry : listings.tailMap(pageKey.after(), false).entrySet()) {
+            if (!pageKey.filter().matches(entry.getValue())) {
+                continue;
+            }
+            if (page.size() == pageKey.limit()) {
+                scannedTo = entry.getKey();
+                nextCursor = Long.toString(last, CURSOR_RADIX);
+                break;
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+
+        try {
+            return new CachedPage(pageKey.after(), scannedTo, mapper.writeValueAsBytes(new RoomPage(page, nextCursor)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to encode room page", ex);
+        }
+    }
+
+    private void invalidate(long key) {
+        changes.incrementAndGet();
+        pages.values().removeIf(page -> page.covers(key));
+    }
+
+    private long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            long after = Long.parseLong(cursor.trim(), CURSOR_RADIX);
+            if (after < 0L) {
+                throw new IllegalStateException("ROOM_CURSOR_INVALID");
+            }
+            return after;
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("ROOM_CURSOR_INVALID");
+        }
+    }
+
+    private RoomListing toListing(Room room) {
+        return new RoomListing(room.roomId(), room.name(), room.hostId(), room.status(), room.size(), room.maxPlayers(),
+                room.password() != null);
+    }
+}
@@ -0,0 +1,149 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.RoomEventType;
+import com.BombTagNet.Backend.dto.RoomDto.RoomEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RoomEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(RoomEventBroadcaster.class);
+    private static final int SEND_TIME_LIMIT_MILLIS = 5000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 64 * 1024;
+
+    private final ObjectMapper mapper;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, String> playersBySession = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> roomsBySession = new ConcurrentHashMap<>();
+    private final Map<String, Set<WebSocketSession>> subscribers = new ConcurrentHashMap<>();
+
+    public RoomEventBroadcaster(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    public void register(WebSocketSession session, String playerId) {
+        playersBySession.put(session.getId(), playerId);
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, SEND_BUFFER_LIMIT_BYTES));
+    }
+
+    public String playerOf(WebSocketSession session) {
+        return playersBySession.get(session.getId());
+    }
+
+    public void unregister(WebSocketSession session) {
+        WebSocketSession decorated = sessions.remove(session.getId());
+        playersBySession.remove(session.getId());
+        Set<String> roomIds = roomsBySession.remove(session.getId());
+        if (decorated == null || roomIds == null) {
+            return;
+        }
+
+        for (String roomId : roomIds) {
+            removeSubscriber(roomId, decorated);
+        }
+    }
+
+    public void subscribe(String roomId, WebSocketSession session) {
+        WebSocketSession decorated = sessions.get(session.getId());
+        if (decorated == null) {
+            return;
+        }
+
+        roomsBySession.computeIfAbsent(session.getId(), id -> ConcurrentHashMap.newKeySet()).add(roomId);
+        subscribers.compute(roomId, (id, set) -> {
+            Set<WebSocketSession> updated = set == null ? ConcurrentHashMap.newKeySet() : set;
+            updated.add(decorated);
+            return updated;
+        });
+    }
+
+    public void unsubscribe(String roomId, WebSocketSession session) {
+        WebSocketSession decorated = sessions.get(session.getId());
+        Set<String> roomIds = roomsBySession.get(session.getId());
+        if (roomIds != null) {
+            roomIds.remove(roomId);
+        }
+        if (decorated != null) {
+            removeSubscriber(roomId, decorated);
+        }
+    }
+
+    public void unsubscribePlayer(String roomId, String playerId) {
+        Set<WebSocketSession> roomSubscribers = subscribers.get(roomId);
+        if (roomSubscribers == null) {
+            return;
+        }
+
+        for (WebSocketSession subscriber : roomSubscribers) {
+            if (playerId.equals(playersBySession.get(subscriber.getId()))) {
+                unsubscribe(roomId, subscriber);
+            }
+        }
+    }
+
+    public void sendTo(WebSocketSession session, RoomEvent event) {
+        WebSocketSession decorated = sessions.get(session.getId());
+        TextMessage message = encode(event);
+        if (decorated != null && message != null) {
+            send(decorated, message);
+        }
+    }
+
+    public void publish(RoomEvent event) {
+        Set<WebSocketSession> roomSubscribers = event.type() == RoomEventType.ROOM_CLOSED
+                ? subscribers.remove(event.roomId())
+                : subscribers.get(event.roomId());
+        if (roomSubscribers == null || roomSubscribers.isEmpty()) {
+            return;
+        }
+
+        TextMessage message = encode(event);
+        if (message == null) {
+            return;
+        }
+
+        for (WebSocketSession subscriber : roomSubscribers) {
+            send(subscriber, message);
+        }
+    }
+
+    private void removeSubscriber(String roomId, WebSocketSession decorated) {
+        subscribers.computeIfPresent(roomId, (id, set) -> {
+            set.remove(decorated);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private TextMessage encode(RoomEvent event) {
+        try {
+            return new TextMessage(mapper.writeValueAsBytes(event));
+        } catch (JsonProcessingException ex) {
+            log.warn("Failed to encode room event type={} roomId={}", event.type(), event.roomId(), ex);
+            return null;
+        }
+    }
+
+    private void send(WebSocketSession session, TextMessage message) {
+        if (!session.isOpen()) {
+            return;
+        }
+
+        try {
+            session.sendMessage(message);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping lobby subscriber sessionId={}", session.getId(), ex);
+            unregister(session);
+        }
+    }
+}
@@ -2,40 +2,114 @@ package com.BombTagNet.Backend.service;
 
 import com.BombTagNet.Backend.service.DedicatedServerRegistry.*;
 import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.config.RoomProperties;
 import com.BombTagNet.Backend.dao.Player;
 import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.RoomEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Locale;
+import java.time.Clock;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class RoomService {
+    private static final int MIN_STARTED_PLAYERS = 2;
+
     private final Map<String, Room> rooms = new ConcurrentHashMap<>();
+    private final Map<Room, CompletableFuture<ServerSlot>> pendingStarts = new ConcurrentHashMap<>();
     private final AtomicInteger seq = new AtomicInteger(1);
+    private final AtomicInteger roomCount = new AtomicInteger();
+    private final AtomicLong reaped = new AtomicLong();
     private final DedicatedServerRegistry dedicatedServers;
     private final MatchTokenService tokens;
+    private final RoomEventBroadcaster events;
+    private final RoomBrowser browser;
+    private final int maxRooms;
+    private final long idleTtlMillis;
+    private final TimingWheel<Room> idleWheel;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor();
+
+    @Autowired
+    public RoomService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens, RoomEventBroadcaster events,
+                       RoomBrowser browser, RoomProperties properties, MeterRegistry meters) {
+        this(dedicatedServers, tokens, events, browser, properties, meters, Clock.systemUTC());
+    }
 
-    public RoomService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens) {
+    RoomService(DedicatedServerRegistry dedicatedServers, MatchTokenService tokens, RoomEventBroadcaster events,
+                RoomBrowser browser, RoomProperties properties, MeterRegistry meters, Clock clock) {
+        this.clock = clock;
         this.dedicatedServers = dedicatedServers;
         this.tokens = tokens;
+        this.events = events;
+        this.browser = browser;
+        this.maxRooms = properties.getMaxRooms() <= 0 ? Integer.MAX_VALUE : properties.getMaxRooms();
+        this.idleTtlMillis = TimeUnit.SECONDS.toMillis(Math.max(0L, properties.getIdleTtlSeconds()));
+        if (idleTtlMillis > 0L) {
+            long tickMillis = Math.max(1L, properties.getReaperTickMillis());
+            this.idleWheel = new TimingWheel<>(tickMillis, properties.getReaperWheelSize(), clock.millis());
+            this.scheduler = Executors.newSingleThreadScheduledExecutor();
+            scheduler.scheduleAtFixedRate(this::reapIdleRooms, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.idleWheel = null;
+            this.scheduler = null;
+        }
+
+        Gauge.builder("bombtag.rooms", roomCount, AtomicInteger::get).tag("state", "open").register(meters);
+        Gauge.builder("bombtag.rooms", pendingStarts, Map::size).tag("state", "starting").register(meters);
+        FunctionCounter.builder("bombtag.rooms.reaped", reaped, AtomicLong::get).register(meters);
     }
 
-    public Room create(String hostId, String name, int maxPlayers, String password) {
+    public Room create(Player host, String name, int maxPlayers, String password) {
+        if (maxPlayers < MIN_STARTED_PLAYERS || maxPlayers > Room.MAX_PLAYERS) {
+            throw new IllegalArgumentException("INVALID_MAX_PLAYERS");
+        }
         String roomId = normalizeRoomKey(name);
         String canonicalKey = toCanonicalKey(roomId);
-        Room r = new Room(roomId, hostId, roomId, Math.max(2, Math.min(4, maxPlayers)), password);
+        if (roomCount.incrementAndGet() > maxRooms) {
+            roomCount.decrementAndGet();
+            throw new IllegalStateException("ROOM_LIMIT_REACHED");
+        }
+
+        Room r = new Room(roomId, host.playerId(), roomId, maxPlayers, password);
+        r.touch(clock.millis());
+        r.admit(host);
         Room existing = rooms.putIfAbsent(canonicalKey, r);
         if (existing != null) {
+            roomCount.decrementAndGet();
             throw new IllegalStateException("ROOM_ALREADY_EXISTS");
         }
+        browser.add(r);
+        if (idleWheel != null) {
+            idleWheel.schedule(r, r.lastActiveMillis() + idleTtlMillis);
+        }
         return r;
     }
 
+    public int roomCount() {
+        return roomCount.get();
+    }
+
+    public long reapedRooms() {
+        return reaped.get();
+    }
+
     private String normalizeRoomKey(String name) {
         if (name == null) {
             throw new IllegalStateException("ROOM_NAME_REQUIRED");
@@ -50,7 +124,19 @@ public class RoomService {
     }
 
     private String toCanonicalKey(String roomId) {
-        return roomId.trim().toLowerCase(Locale.ROOT);
+        String trimmed = roomId.trim();
+        char[] folded = null;
+        for (int i = 0; i < trimmed.length(); ++i) {
+            char c = trimmed.charAt(i);
+            char f = Character.toLowerCase(Character.toUpperCase(c));
+            if (f != c) {
+                if (folded == null) {
+                    folded = trimmed.toCharArray();
+                }
+                folded[i] = f;
+            }
+        }
+        return folded == null ? trimmed : new String(folded);
     }
 
     public Optional<Room> find(String roomIdOrName) {
@@ -63,26 +149,27 @@ public class RoomService {
             return Optional.empty();
         }
 
-        Room byId = rooms.get(toCanonicalKey(normalized));
-        if (byId != null) {
-            return Optional.of(byId);
+        Room room = rooms.get(toCanonicalKey(normalized));
+        if (room == null) {
+            return Optional.empty();
         }
-
-        return rooms.values().stream()
-                .filter(r -> r.roomId().equalsIgnoreCase(normalized) || r.name().equalsIgnoreCase(normalized))
-                .findFirst();
+        room.touch(clock.millis());
+        return Optional.of(room);
     }
 
-    public Room join(Room r, Player p, String password) {
-        if (r.contains(p.playerId())) {
-            return r;
+    public int join(Room r, Player p, String password) {
+        int seated = r.slotOf(p.playerId());
+        if (seated > 0) {
+            return seated;
         }
         if (r.password() != null && !Objects.equals(r.password(), password))
             throw new IllegalStateException("WRONG_PASSWORD");
-        if (!r.canJoin())
+        int slot = r.admit(p);
+        if (slot == 0)
             throw new IllegalStateException("ROOM_FULL_OR_STARTED");
-        r.add(p);
-        return r;
+        browser.update(r);
+        events.publish(RoomEvent.playerJoined(r.roomId(), p));
+        return slot;
     }
 
     public void leave(Room r, String playerId) {
@@ -90,55 +177,131 @@ public class RoomService {
             return;
         }
 
-        boolean wasHost = Objects.equals(r.hostId(), playerId);
-        if (!r.contains(playerId)) {
+        int remaining = r.remove(playerId, MIN_STARTED_PLAYERS);
+        if (remaining < 0) {
             return;
         }
 
-        r.remove(playerId);
-
-        if (wasHost) {
-            r.clearPlayers();
-            rooms.remove(toCanonicalKey(r.roomId()), r);
-            r.setStatus(RoomStatus.WAITING);
-            r.clearDedicatedServerEndpoint();
-            r.setDedicatedServerId(null);
-            r.setStartToken(null, null);
+        if (remaining == 0) {
+            close(r);
             return;
         }
 
-        if (r.size() == 0) {
-            rooms.remove(toCanonicalKey(r.roomId()), r);
-            r.setStatus(RoomStatus.WAITING);
-            r.clearDedicatedServerEndpoint();
-            r.setDedicatedServerId(null);
-            r.setStartToken(null, null);
-            return;
+        events.publish(RoomEvent.playerLeft(r.roomId(), playerId));
+        events.unsubscribePlayer(r.roomId(), playerId);
+        if (Objects.equals(r.hostId(), playerId)) {
+            String successor = r.handOffHost(playerId);
+            if (successor != null) {
+                events.publish(RoomEvent.hostChanged(r.roomId(), successor));
+            } else if (r.size() == 0) {
+                close(r);
+                return;
+            }
         }
+        browser.update(r);
+    }
 
-        if (r.status() == RoomStatus.STARTED && r.size() < 2) {
-            r.setStatus(RoomStatus.WAITING);
+    private boolean close(Room r) {
+        RoomStatus previous = r.close();
+        if (previous == null) {
+            return false;
         }
+
+        String dsId = r.dedicatedServerId();
+        String matchId = r.matchId();
+        roomCount.decrementAndGet();
+        rooms.remove(toCanonicalKey(r.roomId()), r);
+        browser.remove(r);
+        r.clearDedicatedServerEndpoint();
+        r.setDedicatedServerId(null);
+        r.setMatchId(null);
+        r.setStartToken(null, null);
+        cancelPendingStart(r);
+        if (previous != RoomStatus.STARTED && dsId != null && matchId != null) {
+            dedicatedServers.releaseSlot(dsId, matchId);
+        }
+        events.publish(RoomEvent.closed(r.roomId()));
+        return true;
     }
 
-    public MatchLaunch start(Room r, String requesterId, int minPlayersNeeded) {
+    private void reapIdleRooms() {
+        idleWheel.advance(clock.millis(), this::reapIfIdle);
+    }
+
+    long reapIfIdle(Room r) {
+        if (r.status() == RoomStatus.CLOSED) {
+            return 0L;
+        }
+
+        long idleUntil = r.lastActiveMillis() + idleTtlMillis;
+        if (idleUntil > clock.millis()) {
+            return idleUntil;
+        }
+
+        if (close(r)) {
+            reaped.incrementAndGet();
+        }
+        return 0L;
+    }
+
+    public PendingStart start(Room r, String requesterId, int minPlayersNeeded) {
         if (!Objects.equals(r.hostId(), requesterId)) throw new IllegalStateException("ONLY_HOST");
-        if (r.size() < minPlayersNeeded) throw new IllegalStateException("NOT_ENOUGH_PLAYERS");
-        DedicatedServerRecord server = dedicatedServers.allocateReadyServer()
-                .orElseThrow(() -> new IllegalStateException("NO_DEDICATED_SERVER_AVAILABLE"));
+        if (!r.beginStart(minPlayersNeeded)) {
+            RoomStatus status = r.status();
+            if (status == RoomStatus.STARTING) throw new IllegalStateException("ROOM_START_PENDING");
+            if (status == RoomStatus.CLOSED) throw new IllegalStateException("ROOM_NOT_FOUND");
+            throw new IllegalStateException("NOT_ENOUGH_PLAYERS");
+        }
+        String matchId = "rm_" + seq.getAndIncrement();
+        browser.update(r);
+
+        CompletableFuture<ServerSlot> request = dedicatedServers.awaitReadyServer(matchId);
+        pendingStarts.put(r, request);
+        return new PendingStart(matchId, request.thenApplyAsync(slot -> launch(r, matchId, request, slot), launcher));
+    }
+
+    private MatchLaunch launch(Room r, String matchId, CompletableFuture<ServerSlot> request, ServerSlot slot) {
+        DedicatedServerRecord server = slot.server();
+        if (!pendingStarts.remove(r, request) || !r.compareAndSetStatus(RoomStatus.STARTING, RoomStatus.STARTED)) {
+            dedicatedServers.releaseSlot(server.dsId(), matchId);
+            throw new IllegalStateException("ROOM_NOT_FOUND");
+        }
 
-        String matchId = "m_" + seq.getAndIncrement();
         MatchTokenService.IssuedToken token = tokens.issueToken(server.dsId(), r.roomId(), matchId);
 
         r.updateDedicatedServerEndpoint(server.publicAddress(), server.gamePort(), server.internalAddress());
         r.setDedicatedServerId(server.dsId());
-        r.setStatus(RoomStatus.STARTED);
+        r.setMatchId(matchId);
         r.setStartToken(token.token(), token.payload().expiresAt());
+        browser.update(r);
+        events.publish(RoomEvent.started(r.roomId(), matchId, server.publicAddress(),
+                server.gamePort() <= 0 ? null : server.gamePort(), token.token(), token.payload().expiresAt().toString()));
+
+        return new MatchLaunch(matchId, slot, token.token(), token.payload().expiresAt());
+    }
 
-        return new MatchLaunch(matchId, server, token.token(), token.payload().expiresAt());
+    private void cancelPendingStart(Room r) {
+        CompletableFuture<ServerSlot> request = pendingStarts.remove(r);
+        if (request != null) {
+            request.cancel(false);
+        }
     }
 
-    public record MatchLaunch(String matchId, DedicatedServerRecord server,
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public record PendingStart(String matchId, CompletableFuture<MatchLaunch> launch) {
+    }
+
+    public record MatchLaunch(String matchId, ServerSlot slot,
                               String startToken, java.time.Instant expiresAt) {
+        public DedicatedServerRecord server() {
+            return slot.server();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.BombTagNet.Backend.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+final class ScratchPool<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final Supplier<T> factory;
+    private final int mask;
+
+    ScratchPool(int capacity, Supplier<T> factory) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.factory = factory;
+        this.mask = size - 1;
+    }
+
+    T acquire() {
+        int start = start();
+        for (int i = 0; i <= mask; ++i) {
+            int at = (start + i) & mask;
+            if (slots.get(at) != null) {
+                T pooled = slots.getAndSet(at, null);
+                if (pooled != null) {
+                    return pooled;
+                }
+            }
+        }
+        return factory.get();
+    }
+
+    void release(T value) {
+        int start = start();
+        for (int i = 0; i <= mask; ++i) {
+            int at = (start + i) & mask;
+            if (slots.get(at) == null && slots.compareAndSet(at, null, value)) {
+                return;
+            }
+        }
+    }
+
+    private int start() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,135 @@
+package com.BombTagNet.Backend.service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+final class StartTokenKeyRing {
+    record SigningKey(String kid, PrivateKey privateKey, PublicKey publicKey, Instant activatesAt, Instant retiredAt) {
+        private SigningKey retire(Instant at) {
+            return new SigningKey(kid, privateKey, publicKey, activatesAt, at);
+        }
+    }
+
+    private record Ring(SigningKey next, SigningKey current, List<SigningKey> retired) {
+    }
+
+    private static final int KID_BYTES = 9;
+
+    private final Duration rotation;
+    private final Duration retention;
+    private final SecureRandom random = new SecureRandom();
+    private final KeyPairGenerator generator;
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private final ReentrantLock generatorLock = new ReentrantLock();
+    private volatile Ring ring;
+
+    StartTokenKeyRing(Duration rotation, Duration retention) {
+        this.rotation = rotation;
+        this.retention = retention;
+        try {
+            this.generator = KeyPairGenerator.getInstance("Ed25519");
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Ed25519 not available", ex);
+        }
+
+        Instant now = Instant.now();
+        this.ring = new Ring(generate(now.plus(rotation)), generate(now), List.of());
+    }
+
+    SigningKey current(Instant now) {
+        Ring r = ring;
+        if (!now.isBefore(r.next().activatesAt())) {
+            r = rotate(now);
+        }
+        return r.current();
+    }
+
+    Optional<PublicKey> find(String kid, Instant now) {
+        current(now);
+        Ring r = ring;
+        if (r.current().kid().equals(kid)) {
+            return Optional.of(r.current().publicKey());
+        }
+        if (r.next().kid().equals(kid)) {
+            return Optional.of(r.next().publicKey());
+        }
+        for (SigningKey key : r.retired()) {
+            if (key.kid().equals(kid) && now.isBefore(expiresAt(key))) {
+                return Optional.of(key.publicKey());
+            }
+        }
+        return Optional.empty();
+    }
+
+    List<SigningKey> published(Instant now) {
+        current(now);
+        Ring r = ring;
+        List<SigningKey> keys = new ArrayList<>(r.retired().size() + 2);
+        keys.add(r.current());
+        keys.add(r.next());
+        for (SigningKey key : r.retired()) {
+            if (now.isBefore(expiresAt(key))) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    Instant expiresAt(SigningKey key) {
+        return key.retiredAt() == null ? null : key.retiredAt().plus(retention);
+    }
+
+    private Ring rotate(Instant now) {
+        rotationLock.lock();
+        try {
+            Ring r = ring;
+            if (now.isBefore(r.next().activatesAt())) {
+                return r;
+            }
+
+            List<SigningKey> retired = new ArrayList<>(r.retired().size() + 1);
+            retired.add(r.current().retire(now));
+            for (SigningKey key : r.retired()) {
+                if (now.isBefore(expiresAt(key))) {
+                    retired.add(key);
+                }
+            }
+
+            Instant nextActivation = r.next().activatesAt().plus(rotation);
+            if (!nextActivation.isAfter(now)) {
+                nextActivation = now.plus(rotation);
+            }
+            r = new Ring(generate(nextActivation), r.next(), List.copyOf(retired));
+            ring = r;
+            return r;
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private SigningKey generate(Instant activatesAt) {
+        KeyPair pair;
+        generatorLock.lock();
+        try {
+            pair = generator.generateKeyPair();
+        } finally {
+            generatorLock.unlock();
+        }
+
+        byte[] kid = new byte[KID_BYTES];
+        random.nextBytes(kid);
+        return new SigningKey(Base64.getUrlEncoder().withoutPadding().encodeToString(kid), pair.getPrivate(),
+                pair.getPublic(), activatesAt, null);
+    }
+}
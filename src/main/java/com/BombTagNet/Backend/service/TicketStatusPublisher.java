@@ -0,0 +1,115 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class TicketStatusPublisher implements Flow.Publisher<MatchQueueStatus> {
+    private final MatchService match;
+    private final Executor executor;
+    private final String playerId;
+    private final String ticketId;
+
+    TicketStatusPublisher(MatchService match, Executor executor, String playerId, String ticketId) {
+        this.match = match;
+        this.executor = executor;
+        this.playerId = playerId;
+        this.ticketId = ticketId;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super MatchQueueStatus> subscriber) {
+        TicketSubscription subscription = new TicketSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private final class TicketSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super MatchQueueStatus> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicBoolean armed = new AtomicBoolean();
+        private volatile boolean done;
+        private volatile CompletableFuture<MatchQueueStatus> pending;
+        private long version = -1L;
+
+        private TicketSubscription(Flow.Subscriber<? super MatchQueueStatus> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0L) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("non-positive subscription request: " + n));
+                return;
+            }
+
+            demand.getAndUpdate(current -> current + n < 0L ? Long.MAX_VALUE : current + n);
+            arm();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            CompletableFuture<MatchQueueStatus> future = pending;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+        private void arm() {
+            if (done || demand.get() == 0L || !armed.compareAndSet(false, true)) {
+                return;
+            }
+
+            Optional<CompletableFuture<MatchQueueStatus>> next = version < 0L
+                    ? match.status(playerId, ticketId).map(CompletableFuture::completedFuture)
+                    : match.awaitChange(playerId, ticketId, version);
+            if (next.isEmpty()) {
+                done = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            CompletableFuture<MatchQueueStatus> future = next.get();
+            pending = future;
+            if (done) {
+                future.cancel(false);
+                return;
+            }
+            future.whenCompleteAsync((status, ex) -> deliver(status, ex), executor);
+        }
+
+        private void deliver(MatchQueueStatus status, Throwable ex) {
+            pending = null;
+            if (done) {
+                return;
+            }
+            if (ex != null) {
+                done = true;
+                subscriber.onError(ex);
+                return;
+            }
+
+            version = status.version();
+            demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1L);
+            subscriber.onNext(status);
+            if (status.status() == TicketStatus.MATCHED || status.status() == TicketStatus.CANCELLED) {
+                done = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            armed.set(false);
+            arm();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.BombTagNet.Backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToLongFunction;
+
+final class TimingWheel<K> {
+    private static final class Timeout<K> {
+        private final K key;
+        private final long tick;
+
+        private Timeout(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Queue<Timeout<K>>> buckets;
+    private final Map<K, Timeout<K>> scheduled = new ConcurrentHashMap<>();
+    private volatile long currentTick;
+
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = Math.max(1L, tickMillis);
+        int size = Math.max(2, wheelSize);
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        this.currentTick = startMillis / this.tickMillis;
+    }
+
+    void schedule(K key, long deadlineMillis) {
+        long tick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        Timeout<K> timeout = new Timeout<>(key, tick);
+        Timeout<K> replaced = scheduled.put(key, timeout);
+        if (replaced != null) {
+            bucket(replaced.tick).remove(replaced);
+        }
+        bucket(tick).add(timeout);
+    }
+
+    boolean cancel(K key) {
+        Timeout<K> cancelled = scheduled.remove(key);
+        if (cancelled == null) {
+            return false;
+        }
+        bucket(cancelled.tick).remove(cancelled);
+        return true;
+    }
+
+    int size() {
+        return scheduled.size();
+    }
+
+    void advance(long nowMillis, ToLongFunction<K> onExpire) {
+        long target = nowMillis / tickMillis;
+        List<Timeout<K>> due = new ArrayList<>();
+        while (currentTick < target) {
+            long tick = currentTick + 1;
+            Queue<Timeout<K>> bucket = bucket(tick);
+            Timeout<K> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                due.add(timeout);
+            }
+
+            currentTick = tick;
+            for (Timeout<K> entry : due) {
+                if (entry.tick > tick) {
+                    bucket(entry.tick).add(entry);
+                    continue;
+                }
+                if (!scheduled.remove(entry.key, entry)) {
+                    continue;
+                }
+
+                long next = onExpire.applyAsLong(entry.key);
+                if (next > 0L) {
+                    scheduleIfAbsent(entry.key, next);
+                }
+            }
+            due.clear();
+        }
+    }
+
+    private void scheduleIfAbsent(K key, long deadlineMillis) {
+        long tick = Math.max(currentTick + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        Timeout<K> timeout = new Timeout<>(key, tick);
+        if (scheduled.putIfAbsent(key, timeout) == null) {
+            bucket(tick).add(timeout);
+        }
+    }
+
+    private Queue<Timeout<K>> bucket(long tick) {
+        return buckets.get((int) (tick % buckets.size()));
+    }
+}
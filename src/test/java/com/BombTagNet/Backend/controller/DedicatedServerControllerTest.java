@@ -0,0 +1,77 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.common.TokenSigningAlgorithm;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.controller.DedicatedServerController.VerifyStartTokenReq;
+import com.BombTagNet.Backend.controller.DedicatedServerController.VerifyStartTokenRes;
+import com.BombTagNet.Backend.service.ConsumedTokenRegistry;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.MatchTokenService;
+import com.BombTagNet.Backend.service.MatchTokenService.IssuedToken;
+import com.BombTagNet.Backend.service.RegionResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DedicatedServerControllerTest {
+    private DedicatedServerRegistry registry;
+    private MatchTokenService tokens;
+    private DedicatedServerController controller;
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void expiredV2TokenIsRejected() throws InterruptedException {
+        start(TokenSigningAlgorithm.HMAC_SHA256);
+        IssuedToken issued = tokens.issueToken("ds-1", "room-1", "match-1");
+        assertTrue(verify(issued).success());
+
+        awaitExpiry(issued);
+
+        assertEquals("TOKEN_EXPIRED", verify(issued).error());
+    }
+
+    @Test
+    void expiredV3TokenIsRejected() throws InterruptedException {
+        start(TokenSigningAlgorithm.ED25519);
+        IssuedToken issued = tokens.issueToken("ds-1", "room-1", "match-1");
+        assertTrue(verify(issued).success());
+
+        awaitExpiry(issued);
+
+        assertEquals("TOKEN_EXPIRED", verify(issued).error());
+    }
+
+    private void start(TokenSigningAlgorithm signing) {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("dedicated-server-controller-test");
+        properties.setTokenTtlSeconds(1);
+        properties.setTokenSigning(signing);
+        registry = new DedicatedServerRegistry(new DedicatedServerProperties(), new RegionResolver(new RegionProperties()), meters);
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+        tokens = new MatchTokenService(properties, meters);
+        controller = new DedicatedServerController(registry, tokens, new ConsumedTokenRegistry(properties), meters);
+    }
+
+    private VerifyStartTokenRes verify(IssuedToken issued) {
+        return controller.verifyStart(new VerifyStartTokenReq("ds-1", "room-1", "match-1", issued.token())).getBody();
+    }
+
+    private static void awaitExpiry(IssuedToken issued) throws InterruptedException {
+        while (issued.payload().expiresAt().isAfter(Instant.now())) {
+            Thread.sleep(50L);
+        }
+    }
+}
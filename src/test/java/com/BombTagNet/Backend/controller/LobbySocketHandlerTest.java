@@ -0,0 +1,272 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.config.RoomProperties;
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.MatchTokenService;
+import com.BombTagNet.Backend.service.RegionResolver;
+import com.BombTagNet.Backend.service.RoomBrowser;
+import com.BombTagNet.Backend.service.RoomEventBroadcaster;
+import com.BombTagNet.Backend.service.RoomService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobbySocketHandlerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private DedicatedServerRegistry dedicatedServers;
+    private RoomService rooms;
+    private LobbySocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), new RegionResolver(new RegionProperties()), meters);
+        MatchProperties matchProperties = new MatchProperties();
+        matchProperties.setTokenSecret("lobby-socket-handler-test");
+        RoomEventBroadcaster broadcaster = new RoomEventBroadcaster(mapper);
+        rooms = new RoomService(dedicatedServers, new MatchTokenService(matchProperties, meters), broadcaster,
+                new RoomBrowser(mapper), new RoomProperties(), meters);
+        handler = new LobbySocketHandler(rooms, broadcaster, mapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rooms.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void connectionWithoutPlayerIdIsRejected() throws Exception {
+        RecordingSession session = new RecordingSession("s0", null);
+
+        handler.afterConnectionEstablished(session);
+
+        assertEquals(CloseStatus.POLICY_VIOLATION.getCode(), session.closeStatus.getCode());
+    }
+
+    @Test
+    void nonMemberCannotSubscribe() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "private", 4, null);
+        rooms.join(room, new Player("guest", "guest"), null);
+        RecordingSession outsider = connect("outsider");
+
+        subscribe(outsider, room);
+        assertEquals("ERROR", outsider.lastEvent().get("type").asText());
+        assertEquals("NOT_A_MEMBER", outsider.lastEvent().get("code").asText());
+
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 1, null);
+        rooms.start(room, "host", 2).launch().get(30, TimeUnit.SECONDS);
+        assertEquals(1, outsider.events.size());
+    }
+
+    @Test
+    void memberReceivesRosterDeltasAndTheStartToken() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "lobby", 4, null);
+        RecordingSession host = connect("host");
+
+        subscribe(host, room);
+        JsonNode subscribed = host.lastEvent();
+        assertEquals("SUBSCRIBED", subscribed.get("type").asText());
+        assertEquals("host", subscribed.get("hostId").asText());
+        assertEquals(1, subscribed.get("players").size());
+
+        rooms.join(room, new Player("guest", "guest"), null);
+        assertEquals("PLAYER_JOINED", host.lastEvent().get("type").asText());
+        assertEquals("guest", host.lastEvent().get("player").get("playerId").asText());
+
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 1, null);
+        RoomService.MatchLaunch launch = rooms.start(room, "host", 2).launch().get(30, TimeUnit.SECONDS);
+        JsonNode started = host.lastEvent();
+        assertEquals("ROOM_STARTED", started.get("type").asText());
+        assertEquals(launch.startToken(), started.get("startToken").asText());
+        assertEquals(7777, started.get("dedicatedServerPort").asInt());
+    }
+
+    @Test
+    void hostLeavingHandsTheRoomToTheNextSeat() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "handoff", 4, null);
+        rooms.join(room, new Player("guest", "guest"), null);
+        rooms.join(room, new Player("third", "third"), null);
+        RecordingSession guest = connect("guest");
+        subscribe(guest, room);
+
+        rooms.leave(room, "host");
+
+        List<JsonNode> events = guest.events;
+        assertEquals("PLAYER_LEFT", events.get(events.size() - 2).get("type").asText());
+        assertEquals("host", events.get(events.size() - 2).get("player").get("playerId").asText());
+        assertEquals("HOST_CHANGED", guest.lastEvent().get("type").asText());
+        assertEquals("guest", guest.lastEvent().get("hostId").asText());
+        assertEquals("guest", room.hostId());
+        assertNotNull(rooms.start(room, "guest", 2).matchId());
+    }
+
+    @Test
+    void leavingDropsTheSubscription() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "drop", 4, null);
+        rooms.join(room, new Player("guest", "guest"), null);
+        RecordingSession guest = connect("guest");
+        subscribe(guest, room);
+
+        rooms.leave(room, "guest");
+        int seen = guest.events.size();
+        rooms.join(room, new Player("third", "third"), null);
+
+        assertEquals(seen, guest.events.size());
+    }
+
+    @Test
+    void lastPlayerLeavingClosesTheRoom() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "solo", 4, null);
+        RecordingSession host = connect("host");
+        subscribe(host, room);
+
+        rooms.leave(room, "host");
+
+        assertEquals("ROOM_CLOSED", host.lastEvent().get("type").asText());
+        assertTrue(rooms.find("solo").isEmpty());
+        subscribe(host, room);
+        assertEquals("ROOM_NOT_FOUND", host.lastEvent().get("code").asText());
+    }
+
+    private RecordingSession connect(String playerId) throws Exception {
+        RecordingSession session = new RecordingSession("s-" + playerId, playerId);
+        handler.afterConnectionEstablished(session);
+        assertNull(session.closeStatus);
+        return session;
+    }
+
+    private void subscribe(RecordingSession session, Room room) throws Exception {
+        handler.handleMessage(session, new TextMessage("{\"action\":\"subscribe\",\"roomId\":\"" + room.roomId() + "\"}"));
+    }
+
+    private final class RecordingSession implements WebSocketSession {
+        private final String id;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final Map<String, Object> attributes = new HashMap<>();
+        private final List<JsonNode> events = new ArrayList<>();
+        private CloseStatus closeStatus;
+
+        private RecordingSession(String id, String playerId) {
+            this.id = id;
+            if (playerId != null) {
+                headers.add("X-Player-Id", playerId);
+            }
+        }
+
+        private JsonNode lastEvent() {
+            return events.get(events.size() - 1);
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public URI getUri() {
+            return URI.create("ws://localhost/ws/lobby");
+        }
+
+        @Override
+        public HttpHeaders getHandshakeHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public String getAcceptedProtocol() {
+            return null;
+        }
+
+        @Override
+        public void setTextMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getTextMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+        }
+
+        @Override
+        public int getBinaryMessageSizeLimit() {
+            return 0;
+        }
+
+        @Override
+        public List<WebSocketExtension> getExtensions() {
+            return List.of();
+        }
+
+        @Override
+        public synchronized void sendMessage(WebSocketMessage<?> message) throws IOException {
+            events.add(mapper.readTree(((TextMessage) message).getPayload()));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return closeStatus == null;
+        }
+
+        @Override
+        public void close() {
+            close(CloseStatus.NORMAL);
+        }
+
+        @Override
+        public void close(CloseStatus status) {
+            closeStatus = status;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry;
+import com.BombTagNet.Backend.service.MatchService;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchTokenService;
+import com.BombTagNet.Backend.service.RegionResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MatchControllerTest {
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-controller-test");
+        properties.setQueueShards(1);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters);
+        mvc = MockMvcBuilders.standaloneSetup(new MatchController(match, properties))
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void watchTimesOutWithTheUnchangedStatus() throws Exception {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+
+        MvcResult parked = mvc.perform(get("/api/matches/queue/{ticketId}/watch", queued.ticketId())
+                        .header("X-Player-Id", "p0")
+                        .param("version", Long.toString(queued.version()))
+                        .param("timeoutSeconds", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1_000L, parked.getRequest().getAsyncContext().getTimeout());
+
+        MockAsyncContext async = (MockAsyncContext) parked.getRequest().getAsyncContext();
+        for (AsyncListener listener : async.getListeners()) {
+            listener.onTimeout(new AsyncEvent(async));
+        }
+
+        mvc.perform(asyncDispatch(parked))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.position").value(1))
+                .andExpect(jsonPath("$.version").value(queued.version()));
+    }
+
+    @Test
+    void watchReturnsOnceTheTicketChanges() throws Exception {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+
+        MvcResult parked = mvc.perform(get("/api/matches/queue/{ticketId}/watch", queued.ticketId())
+                        .header("X-Player-Id", "p0")
+                        .param("version", Long.toString(queued.version())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        match.enqueue("p1", "p1", "127.0.0.1");
+        match.enqueue("p2", "p2", "127.0.0.1");
+        parked.getAsyncResult(5_000L);
+
+        mvc.perform(asyncDispatch(parked))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FORMING"))
+                .andExpect(jsonPath("$.players.length()").value(3));
+    }
+
+    @Test
+    void watchOnUnknownTicketIsRejected() throws Exception {
+        mvc.perform(get("/api/matches/queue/{ticketId}/watch", "t_missing")
+                        .header("X-Player-Id", "p0")
+                        .param("version", "0"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("TICKET_NOT_FOUND"));
+    }
+}
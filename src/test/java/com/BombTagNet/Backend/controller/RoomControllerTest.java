@@ -0,0 +1,107 @@
+package com.BombTagNet.Backend.controller;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.config.RoomProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry;
+import com.BombTagNet.Backend.service.MatchTokenService;
+import com.BombTagNet.Backend.service.RegionResolver;
+import com.BombTagNet.Backend.service.RoomBrowser;
+import com.BombTagNet.Backend.service.RoomEventBroadcaster;
+import com.BombTagNet.Backend.service.RoomService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RoomControllerTest {
+    private DedicatedServerRegistry dedicatedServers;
+    private RoomService rooms;
+    private MockMvc mvc;
+    private WebTestClient reactive;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        MeterRegistry meters = new SimpleMeterRegistry();
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), new RegionResolver(new RegionProperties()), meters);
+        MatchProperties matchProperties = new MatchProperties();
+        matchProperties.setTokenSecret("room-controller-test");
+        RoomBrowser browser = new RoomBrowser(mapper);
+        rooms = new RoomService(dedicatedServers, new MatchTokenService(matchProperties, meters), new RoomEventBroadcaster(mapper),
+                browser, new RoomProperties(), meters);
+        mvc = MockMvcBuilders.standaloneSetup(new RoomController(rooms, browser, matchProperties))
+                .setControllerAdvice(new RestExceptionHandler())
+                .build();
+        reactive = WebTestClient.bindToController(new ReactiveRoomController(rooms, browser, matchProperties))
+                .controllerAdvice(new RestExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rooms.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void outOfRangeMaxPlayersIsRejected() throws Exception {
+        for (int maxPlayers : new int[]{1, 5, 8, 9, -1}) {
+            mvc.perform(post("/api/rooms")
+                            .header("X-Player-Id", "host")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\":\"room-" + maxPlayers + "\",\"maxPlayers\":" + maxPlayers + "}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_MAX_PLAYERS"));
+        }
+        assertEquals(0, rooms.roomCount());
+    }
+
+    @Test
+    void inRangeMaxPlayersIsKept() throws Exception {
+        mvc.perform(post("/api/rooms")
+                        .header("X-Player-Id", "host")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"trio\",\"maxPlayers\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxPlayers").value(3));
+        mvc.perform(post("/api/rooms")
+                        .header("X-Player-Id", "host")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"default\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxPlayers").value(4));
+    }
+
+    @Test
+    void reactiveOutOfRangeMaxPlayersIsRejected() {
+        reactive.post().uri("/api/rooms")
+                .header("X-Player-Id", "host")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"big\",\"maxPlayers\":9}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("INVALID_MAX_PLAYERS");
+        assertEquals(0, rooms.roomCount());
+
+        reactive.post().uri("/api/rooms")
+                .header("X-Player-Id", "host")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"pair\",\"maxPlayers\":2}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.maxPlayers").isEqualTo(2);
+    }
+}
@@ -0,0 +1,94 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.service.MatchTokenService.TokenPayload;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsumedTokenRegistryTest {
+    private static final long TTL_SECONDS = 16;
+
+    @Test
+    void disabledRegistryAcceptsReplays() {
+        ConsumedTokenRegistry consumed = registry(false);
+        TokenPayload payload = payload(1L, 10);
+
+        assertTrue(consumed.tryConsume(payload));
+        assertTrue(consumed.tryConsume(payload));
+        assertEquals(0, consumed.consumedCount());
+    }
+
+    @Test
+    void replayIsRejectedUntilExpiry() {
+        ConsumedTokenRegistry consumed = registry(true);
+
+        assertTrue(consumed.tryConsume(payload(0L, 10)));
+        assertTrue(consumed.tryConsume(payload(42L, 10)));
+        assertFalse(consumed.tryConsume(payload(0L, 10)));
+        assertFalse(consumed.tryConsume(payload(42L, 10)));
+        assertFalse(consumed.tryConsume(payload(43L, -1)));
+    }
+
+    @Test
+    void replayIsStillRejectedAfterBucketsRotate() throws InterruptedException {
+        ConsumedTokenRegistry consumed = registry(true);
+        long now = Instant.now().getEpochSecond();
+        for (int i = 1; i <= TTL_SECONDS; ++i) {
+            for (long id = 0; id < 64; ++id) {
+                assertTrue(consumed.tryConsume(payloadAt(i * 1_000L + id, now + i)));
+            }
+        }
+
+        long churnId = 1_000_000L;
+        while (Instant.now().getEpochSecond() < now + 3) {
+            assertTrue(consumed.tryConsume(payloadAt(churnId++, now + TTL_SECONDS)));
+            Thread.sleep(50L);
+        }
+
+        long current = Instant.now().getEpochSecond();
+        for (int i = 1; i <= TTL_SECONDS; ++i) {
+            for (long id = 0; id < 64; ++id) {
+                assertFalse(consumed.tryConsume(payloadAt(i * 1_000L + id, now + i)),
+                        "token " + (i * 1_000L + id) + " expiring at +" + i + "s replayed at +" + (current - now) + "s");
+            }
+        }
+        for (long id = 1_000_000L; id < churnId; ++id) {
+            assertFalse(consumed.tryConsume(payloadAt(id, now + TTL_SECONDS)));
+        }
+    }
+
+    @Test
+    void expiredBucketsAreDropped() throws InterruptedException {
+        ConsumedTokenRegistry consumed = registry(true);
+        long now = Instant.now().getEpochSecond();
+        for (long id = 0; id < 100; ++id) {
+            assertTrue(consumed.tryConsume(payloadAt(id, now + 1)));
+        }
+        assertEquals(100, consumed.consumedCount());
+
+        while (Instant.now().getEpochSecond() < now + 3) {
+            Thread.sleep(50L);
+        }
+        assertTrue(consumed.tryConsume(payload(1_000L, TTL_SECONDS)));
+
+        assertEquals(1, consumed.consumedCount());
+    }
+
+    private static ConsumedTokenRegistry registry(boolean enabled) {
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenTtlSeconds(TTL_SECONDS);
+        properties.setTokenConsumeOnce(enabled);
+        return new ConsumedTokenRegistry(properties);
+    }
+
+    private static TokenPayload payload(long tokenId, long expiresInSeconds) {
+        return payloadAt(tokenId, Instant.now().getEpochSecond() + expiresInSeconds);
+    }
+
+    private static TokenPayload payloadAt(long tokenId, long expiresAtEpochSecond) {
+        return new TokenPayload("v2", "ds-1", "room-1", "match-" + tokenId, Instant.ofEpochSecond(expiresAtEpochSecond), tokenId);
+    }
+}
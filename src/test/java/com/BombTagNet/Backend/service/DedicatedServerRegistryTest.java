@@ -0,0 +1,246 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.SlotAllocationPolicy;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.ServerSlot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DedicatedServerRegistryTest {
+    private DedicatedServerRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void readyServersAreAllocatedInReadinessOrder() {
+        registry = registry(new DedicatedServerProperties());
+        ready("ds-1");
+        ready("ds-2");
+        ready("ds-3");
+        ready("ds-1");
+
+        assertEquals("ds-1", allocate("m1").orElseThrow().server().dsId());
+        assertEquals("ds-2", allocate("m2").orElseThrow().server().dsId());
+        assertEquals("ds-3", allocate("m3").orElseThrow().server().dsId());
+        assertTrue(allocate("m4").isEmpty());
+    }
+
+    @Test
+    void statusChangesMoveServersInAndOutOfThePool() {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.REGISTERED);
+        assertTrue(allocate("m1").isEmpty());
+
+        registry.updateStatus("ds-1", DedicatedServerStatus.READY);
+        ServerSlot slot = allocate("m1").orElseThrow();
+        assertEquals(DedicatedServerStatus.BUSY, slot.server().status());
+        assertTrue(allocate("m2").isEmpty());
+
+        registry.updateStatus("ds-1", DedicatedServerStatus.READY);
+        assertEquals("ds-1", allocate("m2").orElseThrow().server().dsId());
+
+        registry.updateStatus("ds-1", DedicatedServerStatus.BUSY);
+        registry.releaseSlot("ds-1", "m2");
+        assertTrue(allocate("m3").isEmpty());
+    }
+
+    @Test
+    void concurrentRoundTripsNeverLoseTheReadyKey() throws Exception {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger seq = new AtomicInteger();
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                boolean updater = t % 2 == 0;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5_000; ++i) {
+                        if (updater) {
+                            registry.updateStatus("ds-1", DedicatedServerStatus.BUSY);
+                            registry.updateStatus("ds-1", DedicatedServerStatus.READY);
+                            continue;
+                        }
+                        String matchId = "m" + seq.incrementAndGet();
+                        allocate(matchId).ifPresent(slot -> registry.releaseSlot("ds-1", matchId));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, registry.find("ds-1").orElseThrow().activeMatches());
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(allocate("last-" + i).isPresent(), "slot " + i);
+        }
+        assertTrue(allocate("last-4").isEmpty());
+    }
+
+    @Test
+    void multiSlotServerHandsOutEverySlotBeforeTurningBusy() {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 3, null);
+
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            ServerSlot slot = allocate("m" + i).orElseThrow();
+            assertEquals("m" + i, slot.matchId());
+            slots.add(slot.slot());
+        }
+
+        assertEquals(List.of(0, 1, 2), slots);
+        assertTrue(allocate("m3").isEmpty());
+        assertEquals(DedicatedServerStatus.BUSY, registry.find("ds-1").orElseThrow().status());
+        assertEquals(3, registry.find("ds-1").orElseThrow().activeMatches());
+
+        registry.releaseSlot("ds-1", "m1");
+        assertEquals(DedicatedServerStatus.READY, registry.find("ds-1").orElseThrow().status());
+        ServerSlot reused = allocate("m4").orElseThrow();
+        assertEquals(1, reused.slot());
+    }
+
+    @Test
+    void releasingAnUnknownMatchLeavesSlotsAlone() {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 2, null);
+        allocate("m1").orElseThrow();
+
+        assertEquals(1, registry.releaseSlot("ds-1", "other").orElseThrow().activeMatches());
+        assertTrue(registry.releaseSlot("ds-missing", "m1").isEmpty());
+    }
+
+    @Test
+    void multiSlotServerKeepsSlotsWhenItReportsReady() {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 2, null);
+        allocate("m1").orElseThrow();
+        allocate("m2").orElseThrow();
+
+        registry.updateStatus("ds-1", DedicatedServerStatus.READY);
+
+        assertEquals(2, registry.find("ds-1").orElseThrow().activeMatches());
+        assertTrue(allocate("m3").isEmpty());
+    }
+
+    @Test
+    void bestFitPacksTheFullestServerFirst() {
+        registry = registry(new DedicatedServerProperties());
+        registry.registerOrUpdate("ds-big", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+        registry.registerOrUpdate("ds-small", "10.0.0.2", "10.0.0.2", 7777, DedicatedServerStatus.READY, 2, null);
+
+        List<String> picks = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            picks.add(allocate("m" + i).orElseThrow().server().dsId());
+        }
+
+        assertEquals(List.of("ds-small", "ds-small", "ds-big", "ds-big", "ds-big", "ds-big"), picks);
+    }
+
+    @Test
+    void leastLoadedSpreadsMatchesByUtilisation() {
+        DedicatedServerProperties properties = new DedicatedServerProperties();
+        properties.setAllocationPolicy(SlotAllocationPolicy.LEAST_LOADED);
+        registry = registry(properties);
+        registry.registerOrUpdate("ds-big", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+        registry.registerOrUpdate("ds-small", "10.0.0.2", "10.0.0.2", 7777, DedicatedServerStatus.READY, 2, null);
+
+        List<String> picks = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            picks.add(allocate("m" + i).orElseThrow().server().dsId());
+        }
+
+        assertEquals(List.of("ds-big", "ds-small", "ds-big", "ds-big", "ds-small", "ds-big"), picks);
+    }
+
+    @Test
+    void capacityIsCappedAtSixtyFourSlots() {
+        registry = registry(new DedicatedServerProperties());
+
+        assertEquals(64, registry.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 1_000, null)
+                .capacity());
+    }
+
+    @Test
+    void livenessEvictionIsOffByDefault() {
+        registry = registry(new DedicatedServerProperties());
+        ready("ds-1");
+
+        assertEquals(0, registry.scheduledLivenessChecks());
+    }
+
+    @Test
+    void reRegisteringKeepsOneLivenessCheckPerServer() {
+        registry = registry(liveness(60, 60_000L));
+        for (int i = 0; i < 100; ++i) {
+            ready("ds-1");
+            registry.updateStatus("ds-1", DedicatedServerStatus.BUSY);
+        }
+        ready("ds-2");
+
+        assertEquals(2, registry.scheduledLivenessChecks());
+    }
+
+    @Test
+    void silentServerEvictedAtAllocationDropsItsLivenessCheck() throws InterruptedException {
+        registry = registry(liveness(1, 60_000L));
+        ready("ds-1");
+        assertEquals(1, registry.scheduledLivenessChecks());
+
+        Thread.sleep(1_050L);
+
+        assertTrue(allocate("m1").isEmpty());
+        assertTrue(registry.find("ds-1").isEmpty());
+        assertEquals(0, registry.scheduledLivenessChecks());
+        assertEquals(1, registry.livenessStats().evictions());
+        assertEquals(1, registry.livenessStats().staleAllocationsAvoided());
+
+        ready("ds-1");
+        assertEquals(1, registry.scheduledLivenessChecks());
+        assertEquals("ds-1", allocate("m2").orElseThrow().server().dsId());
+    }
+
+    private static DedicatedServerProperties liveness(long ttlSeconds, long tickMillis) {
+        DedicatedServerProperties properties = new DedicatedServerProperties();
+        properties.setLivenessTtlSeconds(ttlSeconds);
+        properties.setEvictionTickMillis(tickMillis);
+        return properties;
+    }
+
+    private static DedicatedServerRegistry registry(DedicatedServerProperties properties) {
+        return new DedicatedServerRegistry(properties, new RegionResolver(new RegionProperties()), new SimpleMeterRegistry());
+    }
+
+    private void ready(String dsId) {
+        registry.registerOrUpdate(dsId, "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY);
+    }
+
+    private Optional<ServerSlot> allocate(String matchId) {
+        return registry.allocateReadyServer(matchId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.BombTagNet.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedQueueTest {
+    private static final class Item extends IndexedQueue.Node {
+        final int id;
+
+        Item(int id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    void positionCountsOnlyLiveNodesAfterRemovals() {
+        IndexedQueue<Item> queue = new IndexedQueue<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            Item item = new Item(i);
+            items.add(item);
+            queue.addLast(item);
+        }
+
+        assertTrue(queue.remove(items.get(0)));
+        assertTrue(queue.remove(items.get(4)));
+        assertTrue(queue.remove(items.get(9)));
+        assertFalse(queue.remove(items.get(4)));
+
+        assertEquals(7, queue.size());
+        assertEquals(1, queue.position(items.get(1)));
+        assertEquals(3, queue.position(items.get(3)));
+        assertEquals(4, queue.position(items.get(5)));
+        assertEquals(7, queue.position(items.get(8)));
+        assertEquals(-1, queue.position(items.get(4)));
+        assertSame(items.get(1), queue.peekFirst());
+    }
+
+    @Test
+    void positionSurvivesRebuildsAndFrontInsertions() {
+        IndexedQueue<Item> queue = new IndexedQueue<>();
+        List<Item> expected = new ArrayList<>();
+        Random random = new Random(7);
+        int nextId = 0;
+        for (int round = 0; round < 2_000; ++round) {
+            int op = random.nextInt(4);
+            if (op == 0 && !expected.isEmpty()) {
+                Item removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(queue.remove(removed));
+                assertEquals(-1, queue.position(removed));
+            } else if (op == 1) {
+                Item item = new Item(nextId++);
+                queue.addFirst(item);
+                expected.add(0, item);
+            } else {
+                Item item = new Item(nextId++);
+                queue.addLast(item);
+                expected.add(item);
+            }
+
+            assertEquals(expected.size(), queue.size());
+            for (int i = 0; i < expected.size(); ++i) {
+                assertEquals(i + 1, queue.position(expected.get(i)), "rank of item " + expected.get(i).id);
+            }
+        }
+    }
+
+    @Test
+    void pollFirstSkipsRemovedHeadAndResetsWhenDrained() {
+        IndexedQueue<Item> queue = new IndexedQueue<>();
+        Item first = new Item(0);
+        Item second = new Item(1);
+        Item third = new Item(2);
+        queue.addLast(first);
+        queue.addLast(second);
+        queue.addLast(third);
+
+        queue.remove(first);
+        assertSame(second, queue.pollFirst());
+        assertEquals(1, queue.position(third));
+        assertSame(third, queue.pollFirst());
+        assertNull(queue.pollFirst());
+        assertTrue(queue.isEmpty());
+
+        Item again = new Item(3);
+        queue.addLast(again);
+        assertEquals(1, queue.position(again));
+    }
+}
@@ -0,0 +1,162 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceFormationTest {
+    private static final int[] RATINGS = {1000, 2000, 3000};
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final Map<String, String> ticketIds = new HashMap<>();
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @BeforeEach
+    void setUp() {
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        DedicatedServerProperties dsProperties = new DedicatedServerProperties();
+        dedicatedServers = new DedicatedServerRegistry(dsProperties, regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-service-formation-test");
+        properties.setQueueShards(1);
+        properties.setRatingWindowBase(100);
+        properties.setRatingWindowPerSecond(0);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void separateRatingGroupsFormInParallel() {
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 64, null);
+
+        for (int round = 0; round < 3; ++round) {
+            for (int group = 0; group < RATINGS.length; ++group) {
+                enqueue(group, round);
+            }
+        }
+
+        Set<List<Player>> rosters = new HashSet<>();
+        for (int group = 0; group < RATINGS.length; ++group) {
+            for (int round = 0; round < 3; ++round) {
+                MatchQueueStatus status = status(group, round);
+                assertEquals(TicketStatus.FORMING, status.status());
+                assertEquals(3, status.players().size());
+                rosters.add(status.players());
+            }
+        }
+        assertEquals(RATINGS.length, rosters.size());
+        assertEquals(9L, match.formingTickets());
+
+        Set<String> matchIds = new HashSet<>();
+        for (int group = 0; group < RATINGS.length; ++group) {
+            enqueue(group, 3);
+            for (int round = 0; round < 4; ++round) {
+                MatchQueueStatus status = status(group, round);
+                assertEquals(TicketStatus.MATCHED, status.status());
+                assertEquals(4, status.players().size());
+                matchIds.add(status.matchId());
+            }
+        }
+        assertEquals(RATINGS.length, matchIds.size());
+        assertEquals(0L, match.formingTickets());
+        assertEquals(0, match.queuedTickets());
+        assertEquals(12L, meters.get("bombtag.match.wait").tag("stage", "total").timer().count());
+        assertEquals(12L, meters.get("bombtag.match.wait").tag("stage", "forming").timer().count());
+    }
+
+    @Test
+    void cancellingBelowMinimumRequeuesTheRestInOrder() {
+        MatchQueueStatus first = enqueue(0, 0);
+        enqueue(0, 1);
+        MatchQueueStatus third = enqueue(0, 2);
+        assertEquals(TicketStatus.FORMING, third.status());
+
+        MatchQueueStatus cancelled = match.cancel(playerId(0, 1), status(0, 1).ticketId()).orElseThrow();
+        assertEquals(TicketStatus.CANCELLED, cancelled.status());
+
+        MatchQueueStatus requeuedFirst = status(0, 0);
+        MatchQueueStatus requeuedThird = status(0, 2);
+        assertEquals(first.ticketId(), requeuedFirst.ticketId());
+        assertEquals(TicketStatus.QUEUED, requeuedFirst.status());
+        assertEquals(TicketStatus.QUEUED, requeuedThird.status());
+        assertEquals(1, requeuedFirst.position());
+        assertEquals(2, requeuedThird.position());
+        assertEquals(0L, match.formingTickets());
+
+        enqueue(0, 3);
+        for (int round : new int[]{0, 2, 3}) {
+            assertEquals(TicketStatus.FORMING, status(0, round).status());
+        }
+    }
+
+    @Test
+    void cancellingAboveMinimumKeepsTheMatchForming() throws InterruptedException {
+        for (int round = 0; round < 4; ++round) {
+            enqueue(0, round);
+        }
+        assertEquals(TicketStatus.FORMING, status(0, 0).status());
+        assertEquals(4, status(0, 0).players().size());
+
+        MatchQueueStatus cancelled = match.cancel(playerId(0, 3), status(0, 3).ticketId()).orElseThrow();
+        assertEquals(TicketStatus.CANCELLED, cancelled.status());
+        assertTrue(match.status(playerId(0, 3), cancelled.ticketId()).isEmpty());
+        for (int round = 0; round < 3; ++round) {
+            MatchQueueStatus status = status(0, round);
+            assertEquals(TicketStatus.FORMING, status.status());
+            assertEquals(3, status.players().size());
+        }
+
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 64, null);
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (status(0, 0).status() != TicketStatus.MATCHED) {
+            assertTrue(System.currentTimeMillis() < deadline, "match never launched");
+            Thread.sleep(10L);
+        }
+        assertEquals(3, status(0, 0).players().size());
+        assertEquals(TicketStatus.MATCHED, status(0, 2).status());
+    }
+
+    private MatchQueueStatus enqueue(int group, int round) {
+        String playerId = playerId(group, round);
+        MatchQueueStatus status = match.enqueue(playerId, playerId, "127.0.0.1", RATINGS[group]);
+        ticketIds.put(playerId, status.ticketId());
+        return status;
+    }
+
+    private MatchQueueStatus status(int group, int round) {
+        String playerId = playerId(group, round);
+        return match.status(playerId, ticketIds.get(playerId)).orElseThrow();
+    }
+
+    private static String playerId(int group, int round) {
+        return "p" + group + "_" + round;
+    }
+}
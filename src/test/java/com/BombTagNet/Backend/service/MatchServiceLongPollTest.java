@@ -0,0 +1,100 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceLongPollTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-service-long-poll-test");
+        properties.setQueueShards(1);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void staleVersionCompletesImmediately() {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+
+        CompletableFuture<MatchQueueStatus> change = match.awaitChange("p0", queued.ticketId(), queued.version() - 1).orElseThrow();
+
+        assertTrue(change.isDone());
+        assertEquals(queued.version(), change.join().version());
+    }
+
+    @Test
+    void unknownTicketHasNothingToAwait() {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+
+        assertTrue(match.awaitChange("p0", "t_missing", 0L).isEmpty());
+        assertTrue(match.awaitChange("p1", queued.ticketId(), queued.version()).isEmpty());
+    }
+
+    @Test
+    void waiterWakesWhenTicketStartsForming() throws Exception {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+        CompletableFuture<MatchQueueStatus> change = match.awaitChange("p0", queued.ticketId(), queued.version()).orElseThrow();
+
+        match.enqueue("p1", "p1", "127.0.0.1");
+        assertFalse(change.isDone());
+
+        match.enqueue("p2", "p2", "127.0.0.1");
+        MatchQueueStatus formed = change.get(5, TimeUnit.SECONDS);
+        assertEquals(TicketStatus.FORMING, formed.status());
+        assertEquals(3, formed.players().size());
+    }
+
+    @Test
+    void waiterWakesWhenQueuePositionMoves() throws Exception {
+        MatchQueueStatus first = match.enqueue("p0", "p0", "127.0.0.1");
+        MatchQueueStatus second = match.enqueue("p1", "p1", "127.0.0.1");
+        assertEquals(2, second.position());
+        CompletableFuture<MatchQueueStatus> change = match.awaitChange("p1", second.ticketId(), second.version()).orElseThrow();
+
+        match.cancel("p0", first.ticketId());
+
+        MatchQueueStatus moved = change.get(5, TimeUnit.SECONDS);
+        assertEquals(TicketStatus.QUEUED, moved.status());
+        assertEquals(1, moved.position());
+    }
+
+    @Test
+    void waiterWakesWhenTicketIsCancelled() throws Exception {
+        MatchQueueStatus queued = match.enqueue("p0", "p0", "127.0.0.1");
+        CompletableFuture<MatchQueueStatus> change = match.awaitChange("p0", queued.ticketId(), queued.version()).orElseThrow();
+
+        match.cancel("p0", queued.ticketId());
+
+        assertEquals(TicketStatus.CANCELLED, change.get(5, TimeUnit.SECONDS).status());
+    }
+}
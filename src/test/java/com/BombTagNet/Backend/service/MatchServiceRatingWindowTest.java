@@ -0,0 +1,110 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceRatingWindowTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final Map<String, String> ticketIds = new HashMap<>();
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-service-rating-window-test");
+        properties.setQueueShards(1);
+        properties.setRatingWindowBase(50);
+        properties.setRatingWindowPerSecond(100);
+        properties.setRatingWindowMax(1000);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void tightGroupFormsWithoutWaiting() {
+        enqueue("far", 1400);
+        enqueue("a", 1000);
+        enqueue("b", 1010);
+        enqueue("c", 1020);
+
+        for (String playerId : new String[]{"a", "b", "c"}) {
+            assertEquals(TicketStatus.FORMING, status(playerId).status());
+        }
+        assertEquals(TicketStatus.QUEUED, status("far").status());
+    }
+
+    @Test
+    void spreadGroupFormsOnceTheWindowHasWidened() {
+        enqueue("a", 1000);
+        enqueue("b", 1200);
+        enqueue("c", 1400);
+        assertEquals(3, match.queuedTickets());
+
+        clock.advance(Duration.ofSeconds(3));
+        match.rebalance();
+        assertEquals(3, match.queuedTickets());
+
+        clock.advance(Duration.ofSeconds(1));
+        match.rebalance();
+        for (String playerId : new String[]{"a", "b", "c"}) {
+            MatchQueueStatus status = status(playerId);
+            assertEquals(TicketStatus.FORMING, status.status());
+            assertEquals(3, status.players().size());
+        }
+        assertEquals(0, match.queuedTickets());
+    }
+
+    @Test
+    void openMatchTakesAFarPlayerOnceTheWindowHasWidened() {
+        enqueue("a", 1000);
+        enqueue("b", 1000);
+        enqueue("c", 1000);
+        enqueue("late", 1300);
+        assertEquals(TicketStatus.QUEUED, status("late").status());
+        assertEquals(3, status("a").players().size());
+
+        clock.advance(Duration.ofSeconds(2));
+        match.rebalance();
+        assertEquals(TicketStatus.QUEUED, status("late").status());
+
+        clock.advance(Duration.ofSeconds(1));
+        match.rebalance();
+        assertEquals(TicketStatus.FORMING, status("late").status());
+        assertEquals(4, status("a").players().size());
+    }
+
+    private void enqueue(String playerId, int rating) {
+        ticketIds.put(playerId, match.enqueue(playerId, playerId, "127.0.0.1", rating).ticketId());
+    }
+
+    private MatchQueueStatus status(String playerId) {
+        return match.status(playerId, ticketIds.get(playerId)).orElseThrow();
+    }
+}
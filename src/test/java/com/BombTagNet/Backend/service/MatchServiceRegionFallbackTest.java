@@ -0,0 +1,93 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceRegionFallbackTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void matchWaitingPastBothFallbacksTakesAnyRegion() throws Exception {
+        start(1);
+        List<MatchQueueStatus> tickets = enqueue(4);
+        for (int i = 0; i < tickets.size(); ++i) {
+            assertEquals(TicketStatus.FORMING, match.status("p" + i, tickets.get(i).ticketId()).orElseThrow().status());
+        }
+
+        clock.advance(Duration.ofMillis(2_200L));
+        dedicatedServers.registerOrUpdate("ds-far", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, "elsewhere");
+
+        assertAllMatched(tickets, "ds-far");
+    }
+
+    @Test
+    void zeroFallbackWaitAllocatesFromAnyRegionImmediately() throws Exception {
+        start(0);
+        List<MatchQueueStatus> tickets = enqueue(4);
+
+        dedicatedServers.registerOrUpdate("ds-far", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, "elsewhere");
+
+        assertAllMatched(tickets, "ds-far");
+    }
+
+    private void start(long fallbackWaitSeconds) {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionProperties regionProperties = new RegionProperties();
+        regionProperties.setFallbackWaitSeconds(fallbackWaitSeconds);
+        RegionResolver regions = new RegionResolver(regionProperties);
+        DedicatedServerProperties dsProperties = new DedicatedServerProperties();
+        dsProperties.setLivenessTtlSeconds(0);
+        dedicatedServers = new DedicatedServerRegistry(dsProperties, regions, meters);
+        MatchProperties matchProperties = new MatchProperties();
+        matchProperties.setTokenSecret("match-service-region-fallback-test");
+        matchProperties.setTokenTtlSeconds(60);
+        matchProperties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(matchProperties, meters), regions, matchProperties,
+                new ExecutionProperties(), meters, clock);
+    }
+
+    private List<MatchQueueStatus> enqueue(int players) {
+        List<MatchQueueStatus> tickets = new ArrayList<>();
+        for (int i = 0; i < players; ++i) {
+            tickets.add(match.enqueue("p" + i, "p" + i, "127.0.0.1"));
+        }
+        return tickets;
+    }
+
+    private void assertAllMatched(List<MatchQueueStatus> tickets, String dsId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000L;
+        for (int i = 0; i < tickets.size(); ++i) {
+            MatchQueueStatus ticket = tickets.get(i);
+            MatchQueueStatus status;
+            while ((status = match.status("p" + i, ticket.ticketId()).orElseThrow()).status() != TicketStatus.MATCHED) {
+                assertTrue(System.currentTimeMillis() < deadline, "ticket " + ticket.ticketId() + " stuck in " + status.status());
+                Thread.sleep(20L);
+            }
+            assertEquals(dsId, status.dedicatedServerId());
+        }
+    }
+}
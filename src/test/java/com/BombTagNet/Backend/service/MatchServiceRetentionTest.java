@@ -0,0 +1,104 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceRetentionTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-service-retention-test");
+        properties.setQueueShards(1);
+        properties.setTicketRetentionSeconds(10);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters, clock);
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void matchedTicketStaysQueryableUntilRetentionPasses() {
+        List<MatchQueueStatus> tickets = matchFour();
+
+        clock.advance(Duration.ofSeconds(9));
+        match.reclaimRetiredTickets();
+        assertEquals(TicketStatus.MATCHED, match.status("p0", tickets.get(0).ticketId()).orElseThrow().status());
+
+        clock.advance(Duration.ofSeconds(2));
+        match.reclaimRetiredTickets();
+        for (int i = 0; i < tickets.size(); ++i) {
+            assertTrue(match.status("p" + i, tickets.get(i).ticketId()).isEmpty());
+        }
+    }
+
+    @Test
+    void reclaimCompletesParkedWaitersWithTheFinalStatus() {
+        List<MatchQueueStatus> tickets = matchFour();
+        MatchQueueStatus matched = match.status("p0", tickets.get(0).ticketId()).orElseThrow();
+        CompletableFuture<MatchQueueStatus> change = match.awaitChange("p0", matched.ticketId(), matched.version()).orElseThrow();
+        assertFalse(change.isDone());
+
+        clock.advance(Duration.ofSeconds(11));
+        match.reclaimRetiredTickets();
+
+        assertTrue(change.isDone());
+        MatchQueueStatus last = change.join();
+        assertEquals(TicketStatus.MATCHED, last.status());
+        assertEquals(matched.matchId(), last.matchId());
+        assertEquals(matched.startToken(), last.startToken());
+    }
+
+    @Test
+    void reclaimedPlayerCanQueueAgain() {
+        List<MatchQueueStatus> tickets = matchFour();
+
+        clock.advance(Duration.ofSeconds(11));
+        match.reclaimRetiredTickets();
+
+        MatchQueueStatus requeued = match.enqueue("p0", "p0", "127.0.0.1");
+        assertNotEquals(tickets.get(0).ticketId(), requeued.ticketId());
+        assertEquals(TicketStatus.QUEUED, requeued.status());
+    }
+
+    private List<MatchQueueStatus> matchFour() {
+        List<MatchQueueStatus> tickets = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            tickets.add(match.enqueue("p" + i, "p" + i, "127.0.0.1"));
+        }
+        for (int i = 0; i < tickets.size(); ++i) {
+            assertEquals(TicketStatus.MATCHED, match.status("p" + i, tickets.get(i).ticketId()).orElseThrow().status());
+        }
+        return tickets;
+    }
+}
@@ -0,0 +1,136 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.ExecutionProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.service.MatchService.MatchQueueStatus;
+import com.BombTagNet.Backend.service.MatchService.TicketStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchServiceShardingTest {
+    private static final int SHARDS = 4;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private final Map<String, String> ticketIds = new HashMap<>();
+    private DedicatedServerRegistry dedicatedServers;
+    private MatchService match;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meters = new SimpleMeterRegistry();
+        RegionResolver regions = new RegionResolver(new RegionProperties());
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), regions, meters);
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("match-service-sharding-test");
+        properties.setQueueShards(SHARDS);
+        properties.setRebalanceIntervalMillis(0);
+        match = new MatchService(dedicatedServers, new MatchTokenService(properties, meters), regions, properties,
+                new ExecutionProperties(), meters, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        match.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void playersAreRoutedToTheirHashShard() {
+        List<String> first = playersOnShard(1, 2);
+        List<String> second = playersOnShard(2, 2);
+        for (int i = 0; i < 2; ++i) {
+            enqueue(first.get(i));
+            enqueue(second.get(i));
+        }
+
+        assertEquals(1, status(first.get(0)).position());
+        assertEquals(2, status(first.get(1)).position());
+        assertEquals(1, status(second.get(0)).position());
+        assertEquals(2, status(second.get(1)).position());
+
+        cancel(first.get(0));
+        enqueue(first.get(0));
+        assertEquals(1, status(first.get(1)).position());
+        assertEquals(2, status(first.get(0)).position());
+        assertEquals(1, status(second.get(0)).position());
+    }
+
+    @Test
+    void cancelOnOneShardLeavesOtherShardsUntouched() {
+        List<String> first = playersOnShard(1, 2);
+        List<String> second = playersOnShard(3, 2);
+        for (int i = 0; i < 2; ++i) {
+            enqueue(first.get(i));
+            enqueue(second.get(i));
+        }
+        long secondVersion = status(second.get(1)).version();
+
+        MatchQueueStatus cancelled = cancel(first.get(0));
+        assertEquals(TicketStatus.CANCELLED, cancelled.status());
+        assertEquals(1, status(first.get(1)).position());
+        assertEquals(secondVersion, status(second.get(1)).version());
+        assertEquals(3, match.queuedTickets());
+    }
+
+    @Test
+    void rebalanceConsolidatesStragglersIntoOneMatch() {
+        List<String> first = playersOnShard(1, 2);
+        String second = playersOnShard(2, 1).get(0);
+        enqueue(first.get(0));
+        enqueue(first.get(1));
+        enqueue(second);
+        for (String playerId : List.of(first.get(0), first.get(1), second)) {
+            assertEquals(TicketStatus.QUEUED, status(playerId).status());
+        }
+
+        match.rebalance();
+
+        for (String playerId : List.of(first.get(0), first.get(1), second)) {
+            MatchQueueStatus status = status(playerId);
+            assertEquals(TicketStatus.FORMING, status.status());
+            assertEquals(3, status.players().size());
+        }
+        assertEquals(0, match.queuedTickets());
+
+        cancel(second);
+        assertEquals(TicketStatus.QUEUED, status(first.get(0)).status());
+        assertEquals(1, status(first.get(0)).position());
+        assertEquals(2, status(first.get(1)).position());
+    }
+
+    private List<String> playersOnShard(int shard, int count) {
+        List<String> players = new ArrayList<>();
+        for (int i = 0; players.size() < count; ++i) {
+            String playerId = "s" + shard + "_" + i;
+            if (Math.floorMod(playerId.hashCode(), SHARDS) == shard) {
+                players.add(playerId);
+            }
+        }
+        return players;
+    }
+
+    private void enqueue(String playerId) {
+        ticketIds.put(playerId, match.enqueue(playerId, playerId, "127.0.0.1").ticketId());
+    }
+
+    private MatchQueueStatus cancel(String playerId) {
+        return match.cancel(playerId, ticketIds.get(playerId)).orElseThrow();
+    }
+
+    private MatchQueueStatus status(String playerId) {
+        return match.status(playerId, ticketIds.get(playerId)).orElseThrow();
+    }
+}
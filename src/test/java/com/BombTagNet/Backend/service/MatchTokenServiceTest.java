@@ -0,0 +1,153 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.TokenSigningAlgorithm;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.service.MatchTokenService.IssuedToken;
+import com.BombTagNet.Backend.service.MatchTokenService.TokenPayload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchTokenServiceTest {
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    @Test
+    void v2RoundTripsEveryField() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.HMAC_SHA256);
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 30);
+
+        String token = tokens.encodeV2("ds-1", "room-1", "match-1", expiresAt);
+        TokenPayload payload = tokens.verify(token).orElseThrow();
+
+        assertTrue(token.startsWith("v2."));
+        assertEquals("v2", payload.version());
+        assertEquals("ds-1", payload.dsId());
+        assertEquals("room-1", payload.roomId());
+        assertEquals("match-1", payload.matchId());
+        assertEquals(expiresAt, payload.expiresAt());
+    }
+
+    @Test
+    void v2IssuedTokenMatchesVerifiedPayload() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.HMAC_SHA256);
+
+        IssuedToken issued = tokens.issueToken("ds-\u00fc", "room-\ud55c", "m".repeat(255));
+
+        assertEquals(issued.payload(), tokens.verify(issued.token()).orElseThrow());
+    }
+
+    @Test
+    void v2RejectsAnySingleCharacterTamper() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.HMAC_SHA256);
+        String token = tokens.issueToken("ds-1", "room-1", "match-1").token();
+
+        for (int i = "v2.".length(); i < token.length(); ++i) {
+            assertTrue(tokens.verify(tamper(token, i)).isEmpty(), "tampered at " + i);
+        }
+        assertTrue(tokens.verify(token.substring(0, token.length() - 4)).isEmpty());
+        assertTrue(tokens.verify(token + "AAAA").isEmpty());
+    }
+
+    @Test
+    void v2RejectsTokensSignedWithAnotherSecret() {
+        String token = service("secret-a", TokenSigningAlgorithm.HMAC_SHA256).issueToken("ds-1", "room-1", "match-1").token();
+
+        assertTrue(service("secret-b", TokenSigningAlgorithm.HMAC_SHA256).verify(token).isEmpty());
+    }
+
+    @Test
+    void v2KeepsExpiryOfExpiredTokensForTheCallerToReject() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.HMAC_SHA256);
+        Instant expired = Instant.ofEpochSecond(Instant.now().getEpochSecond() - 1);
+
+        TokenPayload payload = tokens.verify(tokens.encodeV2("ds-1", "room-1", "match-1", expired)).orElseThrow();
+
+        assertEquals(expired, payload.expiresAt());
+        assertFalse(payload.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void v3RoundTripsEveryField() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.ED25519);
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 30);
+
+        String token = tokens.encodeV3("ds-1", "room-1", "match-1", expiresAt);
+        TokenPayload payload = tokens.verify(token).orElseThrow();
+
+        assertTrue(token.startsWith("v3."));
+        assertEquals("v3", payload.version());
+        assertEquals("ds-1", payload.dsId());
+        assertEquals("room-1", payload.roomId());
+        assertEquals("match-1", payload.matchId());
+        assertEquals(expiresAt, payload.expiresAt());
+    }
+
+    @Test
+    void v3IssuedTokenMatchesVerifiedPayload() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.ED25519);
+
+        IssuedToken issued = tokens.issueToken("ds-\u00fc", "room-\ud55c", "m".repeat(255));
+
+        assertEquals(issued.payload(), tokens.verify(issued.token()).orElseThrow());
+        assertFalse(tokens.publicSigningKeys().isEmpty());
+    }
+
+    @Test
+    void v3RejectsAnySingleCharacterTamper() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.ED25519);
+        String token = tokens.issueToken("ds-1", "room-1", "match-1").token();
+
+        for (int i = "v3.".length(); i < token.length(); ++i) {
+            assertTrue(tokens.verify(tamper(token, i)).isEmpty(), "tampered at " + i);
+        }
+        assertTrue(tokens.verify(token.substring(0, token.length() - 4)).isEmpty());
+        assertTrue(tokens.verify(token + "AAAA").isEmpty());
+        assertTrue(tokens.verify("v2." + token.substring("v3.".length())).isEmpty());
+    }
+
+    @Test
+    void v3RejectsTokensSignedByAnotherKeyRing() {
+        String token = service("secret-a", TokenSigningAlgorithm.ED25519).issueToken("ds-1", "room-1", "match-1").token();
+
+        assertTrue(service("secret-a", TokenSigningAlgorithm.ED25519).verify(token).isEmpty());
+    }
+
+    @Test
+    void v3KeepsExpiryOfExpiredTokensForTheCallerToReject() {
+        MatchTokenService tokens = service("secret-a", TokenSigningAlgorithm.ED25519);
+        Instant expired = Instant.ofEpochSecond(Instant.now().getEpochSecond() - 1);
+
+        TokenPayload payload = tokens.verify(tokens.encodeV3("ds-1", "room-1", "match-1", expired)).orElseThrow();
+
+        assertEquals(expired, payload.expiresAt());
+        assertFalse(payload.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void defaultSigningIssuesV2Tokens() {
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret("secret-a");
+        MatchTokenService tokens = new MatchTokenService(properties, new SimpleMeterRegistry());
+
+        IssuedToken issued = tokens.issueToken("ds-1", "room-1", "match-1");
+
+        assertTrue(issued.token().startsWith("v2."));
+        assertTrue(service("secret-a", TokenSigningAlgorithm.HMAC_SHA256).verify(issued.token()).isPresent());
+    }
+
+    static MatchTokenService service(String secret, TokenSigningAlgorithm signing) {
+        MatchProperties properties = new MatchProperties();
+        properties.setTokenSecret(secret);
+        properties.setTokenTtlSeconds(60);
+        properties.setTokenSigning(signing);
+        return new MatchTokenService(properties, new SimpleMeterRegistry());
+    }
+
+    private static String tamper(String token, int index) {
+        char replacement = ALPHABET.charAt((ALPHABET.indexOf(token.charAt(index)) + 1) % ALPHABET.length());
+        return token.substring(0, index) + replacement + token.substring(index + 1);
+    }
+}
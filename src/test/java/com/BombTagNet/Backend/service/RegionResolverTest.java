@@ -0,0 +1,91 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.config.RegionProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionResolverTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void longestIpv4PrefixWins() throws IOException {
+        RegionResolver regions = resolver(
+                "10.0.0.0/8 wide",
+                "10.1.0.0/16 mid",
+                "10.1.2.0/24 narrow",
+                "10.1.2.3 host");
+
+        assertEquals("host", regions.resolve("10.1.2.3"));
+        assertEquals("narrow", regions.resolve("10.1.2.4"));
+        assertEquals("mid", regions.resolve("10.1.3.4"));
+        assertEquals("wide", regions.resolve("10.200.0.1"));
+        assertEquals("default", regions.resolve("11.0.0.1"));
+    }
+
+    @Test
+    void zeroLengthPrefixCatchesOnlyItsOwnFamily() throws IOException {
+        RegionResolver regions = resolver(
+                "0.0.0.0/0 any-v4",
+                "192.168.0.0/16 lan");
+
+        assertEquals("lan", regions.resolve("192.168.10.20"));
+        assertEquals("any-v4", regions.resolve("8.8.8.8"));
+        assertEquals("default", regions.resolve("2001:db8::1"));
+
+        RegionResolver v6 = resolver("::/0 any-v6");
+        assertEquals("any-v6", v6.resolve("2001:db8::1"));
+        assertEquals("default", v6.resolve("8.8.8.8"));
+    }
+
+    @Test
+    void longestIpv6PrefixWins() throws IOException {
+        RegionResolver regions = resolver(
+                "2001:db8::/32 doc",
+                "2001:db8:abcd::/48 site",
+                "2001:db8:abcd:12::/64 subnet");
+
+        assertEquals("subnet", regions.resolve("2001:db8:abcd:12::7"));
+        assertEquals("site", regions.resolve("2001:db8:abcd:13::7"));
+        assertEquals("doc", regions.resolve("2001:db8:ffff::1"));
+        assertEquals("default", regions.resolve("2001:db9::1"));
+    }
+
+    @Test
+    void mappedIpv4UsesTheIpv4Trie() throws IOException {
+        RegionResolver regions = resolver("10.1.0.0/16 mid");
+
+        assertEquals("mid", regions.resolve("::ffff:10.1.2.3"));
+    }
+
+    @Test
+    void invalidLinesAndAddressesFallBackToDefault() throws IOException {
+        RegionResolver regions = resolver(
+                "# comment",
+                "10.0.0.0/33 broken",
+                "10.0.0.0/x broken",
+                "not-an-ip broken",
+                "10.0.0.0/8 Wide");
+
+        assertEquals("wide", regions.resolve("10.9.9.9"));
+        assertEquals("default", regions.resolve("example.com"));
+        assertEquals("default", regions.resolve("10.0.0.256"));
+        assertEquals("default", regions.resolve(null));
+    }
+
+    private RegionResolver resolver(String... lines) throws IOException {
+        Path file = Files.createTempFile(dir, "regions", ".txt");
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        RegionProperties properties = new RegionProperties();
+        properties.setCidrFile(file.toString());
+        return new RegionResolver(properties);
+    }
+}
@@ -0,0 +1,129 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.dto.RoomDto.RoomListing;
+import com.BombTagNet.Backend.dto.RoomDto.RoomPage;
+import com.BombTagNet.Backend.service.RoomBrowser.RoomFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomBrowserTest {
+    private static final RoomFilter ALL = new RoomFilter(null, false, false);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private RoomBrowser browser;
+    private List<Room> rooms;
+
+    @BeforeEach
+    void setUp() {
+        browser = new RoomBrowser(mapper);
+        rooms = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            Room room = new Room("r" + i, "h" + i, "room " + i, 4, i % 3 == 0 ? "pw" : null);
+            rooms.add(room);
+            browser.add(room);
+        }
+    }
+
+    @Test
+    void cursorWalksEveryRoomOnceInCreationOrder() throws IOException {
+        assertEquals(ids(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), walk(ALL, 3));
+        assertEquals(ids(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), walk(ALL, 10));
+        assertNull(page(ALL, null, 10).nextCursor());
+    }
+
+    @Test
+    void cursorStaysStableWhenRoomsAreAddedAndRemovedBetweenPages() throws IOException {
+        RoomPage first = page(ALL, null, 3);
+        assertEquals(ids(0, 1, 2), roomIds(first));
+
+        browser.remove(rooms.get(1));
+        browser.remove(rooms.get(2));
+        browser.remove(rooms.get(4));
+        Room late = new Room("late", "h", "late", 4, null);
+        browser.add(late);
+
+        RoomPage second = page(ALL, first.nextCursor(), 3);
+        assertEquals(ids(3, 5, 6), roomIds(second));
+
+        browser.remove(rooms.get(0));
+        browser.remove(rooms.get(3));
+        browser.add(new Room("later", "h", "later", 4, null));
+
+        RoomPage third = page(ALL, second.nextCursor(), 3);
+        assertEquals(ids(7, 8, 9), roomIds(third));
+        RoomPage fourth = page(ALL, third.nextCursor(), 3);
+        assertEquals(List.of("late", "later"), roomIds(fourth));
+        assertNull(fourth.nextCursor());
+    }
+
+    @Test
+    void cachedPagesReflectChangesInsideTheirRange() throws IOException {
+        assertEquals(ids(0, 1, 2), roomIds(page(ALL, null, 3)));
+
+        browser.remove(rooms.get(2));
+        assertEquals(ids(0, 1, 3), roomIds(page(ALL, null, 3)));
+
+        assertTrue(rooms.get(1).compareAndSetStatus(RoomStatus.WAITING, RoomStatus.STARTING));
+        browser.update(rooms.get(1));
+        RoomPage updated = page(ALL, null, 3);
+        assertEquals(RoomStatus.STARTING, updated.rooms().get(1).status());
+
+        assertEquals(ids(0, 3, 4, 5, 6, 7, 8, 9), walk(new RoomFilter(RoomStatus.WAITING, false, false), 3));
+    }
+
+    @Test
+    void filtersApplyAcrossPages() throws IOException {
+        assertEquals(ids(1, 2, 4, 5, 7, 8), walk(new RoomFilter(null, false, true), 2));
+    }
+
+    @Test
+    void readdedRoomMovesToTheEnd() throws IOException {
+        browser.add(rooms.get(0));
+
+        assertEquals(ids(1, 2, 3, 4, 5, 6, 7, 8, 9, 0), walk(ALL, 4));
+    }
+
+    @Test
+    void invalidCursorIsRejected() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> browser.page(ALL, "not a cursor", 3));
+        assertEquals("ROOM_CURSOR_INVALID", ex.getMessage());
+        assertThrows(IllegalStateException.class, () -> browser.page(ALL, "-1", 3));
+    }
+
+    private List<String> walk(RoomFilter filter, int limit) throws IOException {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            RoomPage page = page(filter, cursor, limit);
+            assertTrue(page.rooms().size() <= limit);
+            seen.addAll(roomIds(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private RoomPage page(RoomFilter filter, String cursor, int limit) throws IOException {
+        return mapper.readValue(browser.page(filter, cursor, limit), RoomPage.class);
+    }
+
+    private static List<String> roomIds(RoomPage page) {
+        return page.rooms().stream().map(RoomListing::roomId).toList();
+    }
+
+    private static List<String> ids(int... indexes) {
+        List<String> ids = new ArrayList<>();
+        for (int index : indexes) {
+            ids.add("r" + index);
+        }
+        return ids;
+    }
+}
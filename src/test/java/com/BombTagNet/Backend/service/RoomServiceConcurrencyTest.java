@@ -0,0 +1,193 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.config.RoomProperties;
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.dao.Room;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomServiceConcurrencyTest {
+    private static final int JOINERS = 5000;
+    private static final int THREADS = 64;
+
+    private ExecutorService executor;
+    private DedicatedServerRegistry dedicatedServers;
+    private RoomService rooms;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        ObjectMapper mapper = new ObjectMapper();
+        MeterRegistry meters = new SimpleMeterRegistry();
+        DedicatedServerProperties dsProperties = new DedicatedServerProperties();
+        dsProperties.setLivenessTtlSeconds(0);
+        dedicatedServers = new DedicatedServerRegistry(dsProperties, new RegionResolver(new RegionProperties()), meters);
+        MatchProperties matchProperties = new MatchProperties();
+        matchProperties.setTokenSecret("room-service-concurrency-test");
+        matchProperties.setTokenTtlSeconds(60);
+        rooms = new RoomService(dedicatedServers, new MatchTokenService(matchProperties, meters), new RoomEventBroadcaster(mapper),
+                new RoomBrowser(mapper), new RoomProperties(), meters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        rooms.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void concurrentJoinsNeverOversubscribeARoom() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "storm", 4, null);
+        Set<Integer> slots = ConcurrentHashMap.newKeySet();
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(JOINERS, i -> {
+            try {
+                slots.add(rooms.join(room, new Player("p" + i, "p" + i), null));
+                admitted.incrementAndGet();
+            } catch (IllegalStateException ex) {
+                assertEquals("ROOM_FULL_OR_STARTED", ex.getMessage());
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(3, admitted.get());
+        assertEquals(JOINERS - 3, rejected.get());
+        assertEquals(Set.of(2, 3, 4), slots);
+        assertEquals(4, room.size());
+        assertEquals(4, room.players().size());
+        assertEquals(1, room.slotOf("host"));
+    }
+
+    @Test
+    void joinLeaveChurnKeepsSlotsAndPlayersConsistent() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "churn", 4, null);
+        AtomicInteger violations = new AtomicInteger();
+
+        runConcurrently(JOINERS, i -> {
+            String playerId = "p" + (i % 16);
+            try {
+                int slot = rooms.join(room, new Player(playerId, playerId), null);
+                if (slot < 1 || slot > 4 || room.size() > 4) {
+                    violations.incrementAndGet();
+                }
+                rooms.leave(room, playerId);
+            } catch (IllegalStateException ex) {
+                assertEquals("ROOM_FULL_OR_STARTED", ex.getMessage());
+            }
+        });
+
+        assertEquals(0, violations.get());
+        assertEquals(RoomStatus.WAITING, room.status());
+        assertEquals(room.players().size(), room.size());
+        Set<Integer> slots = new HashSet<>();
+        for (Player player : room.players()) {
+            assertTrue(slots.add(room.slotOf(player.playerId())));
+        }
+    }
+
+    @Test
+    void joinsAfterStartAreRejected() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "race", 4, null);
+        rooms.join(room, new Player("first", "first"), null);
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicInteger starts = new AtomicInteger();
+        AtomicInteger joinedAfterStart = new AtomicInteger();
+
+        runConcurrently(JOINERS, i -> {
+            if (i % 100 == 0) {
+                try {
+                    rooms.start(room, "host", 2);
+                    started.set(true);
+                    starts.incrementAndGet();
+                } catch (IllegalStateException ex) {
+                    assertEquals("ROOM_START_PENDING", ex.getMessage());
+                }
+                return;
+            }
+
+            boolean startedBefore = started.get();
+            try {
+                rooms.join(room, new Player("p" + i, "p" + i), null);
+                if (startedBefore) {
+                    joinedAfterStart.incrementAndGet();
+                }
+            } catch (IllegalStateException ex) {
+                assertEquals("ROOM_FULL_OR_STARTED", ex.getMessage());
+            }
+        });
+
+        assertEquals(1, starts.get());
+        assertEquals(0, joinedAfterStart.get());
+        assertEquals(RoomStatus.STARTING, room.status());
+        assertTrue(room.size() >= 2 && room.size() <= 4);
+        assertEquals(room.size(), room.players().size());
+    }
+
+    @Test
+    void launchRunsOffTheThreadThatFreesAServer() throws Exception {
+        Room room = rooms.create(new Player("host", "host"), "handoff", 4, null);
+        rooms.join(room, new Player("first", "first"), null);
+        RoomService.PendingStart pending = rooms.start(room, "host", 2);
+        CompletableFuture<Thread> launchThread = pending.launch().thenApply(launch -> Thread.currentThread());
+
+        Thread registering = executor.submit(() -> {
+            dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777,
+                    DedicatedServerRegistry.DedicatedServerStatus.READY, 1, null);
+            return Thread.currentThread();
+        }).get(30, TimeUnit.SECONDS);
+
+        RoomService.MatchLaunch launch = pending.launch().get(30, TimeUnit.SECONDS);
+        assertEquals("ds-1", launch.server().dsId());
+        assertEquals(RoomStatus.STARTED, room.status());
+        assertNotSame(registering, launchThread.get(30, TimeUnit.SECONDS));
+    }
+
+    private void runConcurrently(int tasks, IntTask task) throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; ++i) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                gate.await();
+                task.run(index);
+                return null;
+            }));
+        }
+        gate.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,129 @@
+package com.BombTagNet.Backend.service;
+
+import com.BombTagNet.Backend.common.RoomStatus;
+import com.BombTagNet.Backend.config.DedicatedServerProperties;
+import com.BombTagNet.Backend.config.MatchProperties;
+import com.BombTagNet.Backend.config.RegionProperties;
+import com.BombTagNet.Backend.config.RoomProperties;
+import com.BombTagNet.Backend.dao.Player;
+import com.BombTagNet.Backend.dao.Room;
+import com.BombTagNet.Backend.service.DedicatedServerRegistry.DedicatedServerStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoomServiceReaperTest {
+    private static final long IDLE_TTL_SECONDS = 60;
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private DedicatedServerRegistry dedicatedServers;
+    private RoomService rooms;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        MeterRegistry meters = new SimpleMeterRegistry();
+        dedicatedServers = new DedicatedServerRegistry(new DedicatedServerProperties(), new RegionResolver(new RegionProperties()), meters);
+        dedicatedServers.registerOrUpdate("ds-1", "10.0.0.1", "10.0.0.1", 7777, DedicatedServerStatus.READY, 4, null);
+        MatchProperties matchProperties = new MatchProperties();
+        matchProperties.setTokenSecret("room-service-reaper-test");
+        RoomProperties roomProperties = new RoomProperties();
+        roomProperties.setIdleTtlSeconds(IDLE_TTL_SECONDS);
+        rooms = new RoomService(dedicatedServers, new MatchTokenService(matchProperties, meters), new RoomEventBroadcaster(mapper),
+                new RoomBrowser(mapper), roomProperties, meters, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rooms.shutdown();
+        dedicatedServers.shutdown();
+    }
+
+    @Test
+    void activeRoomIsCheckedAgainLater() {
+        Room room = rooms.create(new Player("host", "host"), "busy", 4, null);
+
+        long next = rooms.reapIfIdle(room);
+
+        assertTrue(next > clock.millis());
+        assertEquals(RoomStatus.WAITING, room.status());
+        assertEquals(0L, rooms.reapedRooms());
+    }
+
+    @Test
+    void idleStartedRoomIsClosedButKeepsItsServerSlot() throws Exception {
+        Room room = startedRoom("started");
+        idle();
+
+        assertEquals(0L, rooms.reapIfIdle(room));
+
+        assertEquals(RoomStatus.CLOSED, room.status());
+        assertEquals(1L, rooms.reapedRooms());
+        assertEquals(0, rooms.roomCount());
+        assertEquals(1, activeMatches());
+    }
+
+    @Test
+    void hostLeavingAStartedRoomHandsOffAndKeepsItsServerSlot() throws Exception {
+        Room room = startedRoom("left");
+
+        rooms.leave(room, "host");
+
+        assertEquals(RoomStatus.STARTED, room.status());
+        assertEquals("guest", room.hostId());
+        assertEquals(1, activeMatches());
+    }
+
+    @Test
+    void idleRoomThatFellBackToWaitingReleasesItsServerSlot() throws Exception {
+        Room room = startedRoom("fallback");
+        rooms.leave(room, "guest");
+        rooms.leave(room, "third");
+        assertEquals(RoomStatus.WAITING, room.status());
+        idle();
+
+        rooms.reapIfIdle(room);
+
+        assertEquals(RoomStatus.CLOSED, room.status());
+        assertEquals(0, activeMatches());
+    }
+
+    @Test
+    void lastPlayerLeavingAFallenBackRoomReleasesItsServerSlot() throws Exception {
+        Room room = startedRoom("emptied");
+        rooms.leave(room, "guest");
+        rooms.leave(room, "third");
+
+        rooms.leave(room, "host");
+
+        assertEquals(RoomStatus.CLOSED, room.status());
+        assertEquals(0, activeMatches());
+    }
+
+    private Room startedRoom(String name) throws Exception {
+        Room room = rooms.create(new Player("host", "host"), name, 4, null);
+        rooms.join(room, new Player("guest", "guest"), null);
+        rooms.join(room, new Player("third", "third"), null);
+        rooms.start(room, "host", 2).launch().get(30, TimeUnit.SECONDS);
+        assertEquals(RoomStatus.STARTED, room.status());
+        assertEquals(1, activeMatches());
+        return room;
+    }
+
+    private void idle() {
+        clock.advance(Duration.ofSeconds(IDLE_TTL_SECONDS * 2));
+    }
+
+    private int activeMatches() {
+        return dedicatedServers.find("ds-1").orElseThrow().activeMatches();
+    }
+}
@@ -0,0 +1,143 @@
+package com.BombTagNet.Backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 10L;
+    private static final int WHEEL_SIZE = 8;
+
+    @Test
+    void deadlineBeyondOneRotationWaitsForItsOwnTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("near", 30L);
+        wheel.schedule("far", 30L + TICK * WHEEL_SIZE * 2);
+
+        wheel.advance(30L, key -> record(expired, key));
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(30L + TICK * WHEEL_SIZE, key -> record(expired, key));
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(30L + TICK * WHEEL_SIZE * 2 - 1, key -> record(expired, key));
+        assertEquals(List.of("near"), expired);
+
+        wheel.advance(30L + TICK * WHEEL_SIZE * 2, key -> record(expired, key));
+        assertEquals(List.of("near", "far"), expired);
+    }
+
+    @Test
+    void expireCallbackCanRescheduleAcrossTheWheel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<Long> firedAt = new ArrayList<>();
+        long[] now = {0L};
+        wheel.schedule("retry", 20L);
+
+        for (now[0] = TICK; now[0] <= 1_000L; now[0] += TICK) {
+            wheel.advance(now[0], key -> {
+                firedAt.add(now[0]);
+                return firedAt.size() < 4 ? now[0] + TICK * (WHEEL_SIZE + 3) : 0L;
+            });
+        }
+
+        assertEquals(List.of(20L, 130L, 240L, 350L), firedAt);
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 500L);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("late", 100L);
+
+        wheel.advance(509L, key -> record(expired, key));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(510L, key -> record(expired, key));
+        assertEquals(List.of("late"), expired);
+    }
+
+    @Test
+    void advancingPastManyRotationsAtOnceFiresEverything() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<Integer> expired = new ArrayList<>();
+        for (int i = 1; i <= WHEEL_SIZE * 5; ++i) {
+            wheel.schedule(i, i * TICK);
+        }
+
+        wheel.advance(WHEEL_SIZE * 5 * TICK, key -> {
+            expired.add(key);
+            return 0L;
+        });
+
+        assertEquals(WHEEL_SIZE * 5, expired.size());
+        for (int i = 0; i < expired.size(); ++i) {
+            assertEquals(i + 1, expired.get(i));
+        }
+    }
+
+    @Test
+    void reschedulingAKeyReplacesItsPendingTimeout() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<String> expired = new ArrayList<>();
+        for (int i = 1; i <= 50; ++i) {
+            wheel.schedule("ds", i * TICK);
+        }
+        assertEquals(1, wheel.size());
+
+        wheel.advance(49 * TICK, key -> record(expired, key));
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(50 * TICK, key -> record(expired, key));
+        assertEquals(List.of("ds"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledKeyNeverFires() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<String> expired = new ArrayList<>();
+        wheel.schedule("gone", 30L);
+        wheel.schedule("kept", 30L);
+
+        assertTrue(wheel.cancel("gone"));
+        assertFalse(wheel.cancel("gone"));
+        wheel.advance(100L, key -> record(expired, key));
+
+        assertEquals(List.of("kept"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void scheduleFromOutsideTheCallbackWinsOverItsReschedule() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, WHEEL_SIZE, 0L);
+        List<Long> firedAt = new ArrayList<>();
+        wheel.schedule("ds", 20L);
+
+        wheel.advance(20L, key -> {
+            firedAt.add(20L);
+            wheel.schedule(key, 200L);
+            return 50L;
+        });
+        wheel.advance(190L, key -> {
+            firedAt.add(190L);
+            return 0L;
+        });
+        assertEquals(List.of(20L), firedAt);
+
+        wheel.advance(200L, key -> {
+            firedAt.add(200L);
+            return 0L;
+        });
+        assertEquals(List.of(20L, 200L), firedAt);
+    }
+
+    private static long record(List<String> expired, String key) {
+        expired.add(key);
+        return 0L;
+    }
+}